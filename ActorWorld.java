@@ -0,0 +1,360 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The ActorWorld class lets many players play in the same world at once,
+ * like a SharedWorld, but without any lock: every room is owned by a
+ * RoomActor, and whatever a command reads or changes in a room is sent
+ * to that room's actor as a message.
+ *
+ * Commands return a future completed once the room's actor has run them,
+ * the output having then been appended. A player sends his/her next
+ * command once the previous one is completed, as the player's position
+ * and inventory are only handed to the actors for the time of a command.
+ *
+ * Moving between two rooms is a handoff in two phases: the room the player
+ * leaves removes him/her from its players, then sends the player on to the
+ * room he/she enters, which adds him/her. No actor ever waits for another.
+ * While on the way, the player is in neither room.
+ *
+ * Players can move around, look, take, drop and inspect items, talk to NPCs
+ * and give them the items their quests request. Starting and finishing
+ * quests, which changes more than one room, still needs a Game.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class ActorWorld {
+    private static final Executor DEFAULT_EXECUTOR = defaultExecutor();
+
+    private WorldTemplate template;
+    private RoomActor[] actors;     // actor of each room, by room id.
+    private Item[] items;
+    private AtomicInteger playerCount;
+
+    /**
+     * Creates a world without any player, whose room actors process their
+     * messages on virtual threads if the Java runtime supports them.
+     * Worlds created this way share their threads.
+     * @param template the world to play in.
+     */
+    public ActorWorld(WorldTemplate template) {
+        this(template, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Creates a world without any player.
+     * @param template the world to play in.
+     * @param executor the executor processing the messages of the room actors.
+     */
+    public ActorWorld(WorldTemplate template, Executor executor) {
+        this.template = template;
+        GameSetup setup = new GameSetup(template);
+        items = new Item[template.getItemCount()];
+        for (Item item : setup.getAllItems().values()) {
+            items[item.getId()] = item;
+        }
+        actors = new RoomActor[template.getRoomCount()];
+        for (Room room : setup.getAllRooms()) {
+            actors[room.getId()] = new RoomActor(room, executor, room.getId());
+        }
+        playerCount = new AtomicInteger();
+    }
+
+    // ------ accessor methods: ------
+
+    /**
+     * Returns the world's template.
+     * @return the world's template.
+     */
+    public WorldTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Returns the amount of players in the world.
+     * @return the amount of players who joined and did not leave.
+     */
+    public int getPlayerCount() {
+        return playerCount.get();
+    }
+
+    /**
+     * Returns the amount of an item in a room, as read by the room's actor.
+     * @param room the room's id.
+     * @param item the item's id.
+     * @return the future amount of the item in the room.
+     */
+    public CompletableFuture<Integer> getItemAmount(int room, int item) {
+        CompletableFuture<Integer> amount = new CompletableFuture<>();
+        RoomActor actor = actors[room];
+        actor.tell(() -> amount.complete(actor.getRoom().getItemAmount(items[item])));
+        return amount;
+    }
+
+    // ------ players: ------
+
+    /**
+     * Adds a player to the world, in the world's starting room.
+     * @param name the player's name.
+     * @return the player, to send commands with.
+     */
+    public SharedPlayer join(String name) {
+        return join(name, template.getStartingRoom());
+    }
+
+    /**
+     * Adds a player to the world in a given room. The player can be sent
+     * commands right away: they reach the room after the player does.
+     * @param name the player's name.
+     * @param start the id of the room the player starts in.
+     * @return the player, to send commands with.
+     */
+    public SharedPlayer join(String name, int start) {
+        RoomActor actor = actors[start];
+        SharedPlayer player = new SharedPlayer(name, new Player(actor.getRoom(), template.getItemRegistry(), items));
+        actor.tell(() -> actor.getOccupants().add(player));
+        playerCount.incrementAndGet();
+        return player;
+    }
+
+    /**
+     * Removes a player from the world. Items in the player's inventory leave with him/her.
+     * @param player the player leaving.
+     * @return a future completed once the player has left his/her room.
+     */
+    public CompletableFuture<Void> leave(SharedPlayer player) {
+        if (!player.isInWorld()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        player.setInWorld(false);
+        playerCount.decrementAndGet();
+        RoomActor actor = actorOf(player);
+        return ask(actor, () -> actor.getOccupants().remove(player));
+    }
+
+    // ------ implementations of user commands: ------
+
+    /**
+     * Moves a player to an adjacent room given the name of the next room.
+     * @param player the player moving.
+     * @param direction the name of the next room.
+     * @param output the output to append any message to.
+     * @return a future completed once the player is in the next room.
+     */
+    public CompletableFuture<Void> goRoom(SharedPlayer player, String direction, StringBuilder output) {
+        Room to = player.getPlayer().getCurrentRoom().getExit(direction);
+        if (to == null) {
+            output.append("There is no exit to ").append(direction).append(".\n");
+            return CompletableFuture.completedFuture(null);
+        }
+        return handOver(player, to, () -> player.getPlayer().changeRoom(to));
+    }
+
+    /**
+     * Moves a player back to the room he/she was in before.
+     * @param player the player moving.
+     * @param output the output to append any message to.
+     * @return a future completed once the player is in the previous room.
+     */
+    public CompletableFuture<Void> goBack(SharedPlayer player, StringBuilder output) {
+        int previousCount = player.getPlayer().getPreviousRooms().size();
+        if (previousCount == 0) {
+            output.append("There is no previous room.\n");
+            return CompletableFuture.completedFuture(null);
+        }
+        Room to = player.getPlayer().getPreviousRooms().get(previousCount - 1);
+        return handOver(player, to, () -> player.getPlayer().goBack(output));
+    }
+
+    /**
+     * Describes a player's room: its NPCs, its items and the other players in it.
+     * @param player the player looking around.
+     * @param output the output to append the description to.
+     * @return a future completed once the description is appended.
+     */
+    public CompletableFuture<Void> look(SharedPlayer player, StringBuilder output) {
+        RoomActor actor = actorOf(player);
+        return ask(actor, () -> {
+            output.append(actor.getRoom().getDescription());
+            actor.getRoom().lookAround(output);
+            player.appendOthers(actor.getOccupants(), output);
+        });
+    }
+
+    /**
+     * Lets a player take an item from his/her room.
+     * @param player the player taking the item.
+     * @param itemName the item to take.
+     * @param output the output to append any message to.
+     * @return a future completed once the item is taken.
+     */
+    public CompletableFuture<Void> takeItem(SharedPlayer player, String itemName, StringBuilder output) {
+        return ask(actorOf(player), () -> player.getPlayer().takeItem(itemName, output));
+    }
+
+    /**
+     * Lets a player drop an item in his/her room.
+     * @param player the player dropping the item.
+     * @param itemName the item to drop.
+     * @param output the output to append any message to.
+     * @return a future completed once the item is dropped.
+     */
+    public CompletableFuture<Void> dropItem(SharedPlayer player, String itemName, StringBuilder output) {
+        return ask(actorOf(player), () -> player.getPlayer().dropItem(itemName, output));
+    }
+
+    /**
+     * Lets a player talk to an NPC in his/her room. NPCs with a quest
+     * tell what their quest is about, the others say one of their lines.
+     * @param player the player talking.
+     * @param characterName the name of the NPC to talk to.
+     * @param output the output to append the NPC's answer to.
+     * @return a future completed once the NPC has answered.
+     */
+    public CompletableFuture<Void> talk(SharedPlayer player, String characterName, StringBuilder output) {
+        RoomActor actor = actorOf(player);
+        return ask(actor, () -> {
+            NPC character = actor.getRoom().characterInRoom(characterName);
+            if (character == null) {
+                output.append(characterName).append(" is not in the room.\n");
+            } else if (character.getQuest() == null) {
+                character.interact(PromptPolicy.ALWAYS_DECLINE, actor.getRandom(), output);
+            } else {
+                output.append(character.getName()).append(": ").append(character.getQuest().getInteraction()).append('\n');
+            }
+        });
+    }
+
+    /**
+     * Lets a player give an NPC in his/her room the items its quest requests.
+     * @param player the player giving the items.
+     * @param characterName the name of the NPC to give to.
+     * @param itemName the name of the item to give.
+     * @param output the output to append any message to.
+     * @return a future completed once the items are given.
+     */
+    public CompletableFuture<Void> give(SharedPlayer player, String characterName, String itemName, StringBuilder output) {
+        RoomActor actor = actorOf(player);
+        return ask(actor, () -> {
+            NPC character = actor.getRoom().characterInRoom(characterName);
+            int itemId = template.getItemRegistry().getId(itemName);
+            Item item = (itemId == -1) ? null : items[itemId];
+            if (character == null) {
+                output.append(characterName).append(" is not in the room.\n");
+            } else if (item == null || character.getQuest() == null || !character.getQuest().requestsItem(item)) {
+                output.append(character.getName()).append(" does not want any ").append(itemName).append(".\n");
+            } else {
+                int amountToGive = character.getQuest().getAmountWanted(item);
+                if (player.getPlayer().give(item, amountToGive)) {
+                    character.getQuest().removeRequestedItem(item);
+                    output.append("Successfully gave ").append(amountToGive).append(' ')
+                            .append(item.getStringName(amountToGive)).append(" to ").append(character.getName()).append('\n');
+                } else {
+                    output.append(character.getName()).append(" wants ").append(amountToGive).append(' ')
+                            .append(item.getStringName(amountToGive)).append(".\n");
+                }
+            }
+        });
+    }
+
+    /**
+     * Lets a player inspect an item in his/her inventory.
+     * Only the player's own inventory is read, so no actor is involved.
+     * @param player the player inspecting the item.
+     * @param itemName the item to inspect.
+     * @param output the output to append the item's description to.
+     */
+    public void inspectItem(SharedPlayer player, String itemName, StringBuilder output) {
+        int id = template.getItemRegistry().getId(itemName);
+        if (id == -1 || !player.getPlayer().getInventory().contains(id)) {
+            output.append("You do not have any ").append(itemName).append(".\n");
+            return;
+        }
+        player.getPlayer().inspectItem(itemName, output);
+    }
+
+    /**
+     * Appends a player's inventory to an output.
+     * @param player the player whose inventory to display.
+     * @param output the output to append the inventory to.
+     */
+    public void displayInventory(SharedPlayer player, StringBuilder output) {
+        player.getPlayer().showInventory(output);
+    }
+
+    // ------ private methods: ------
+
+    /**
+     * Returns an executor starting a virtual thread for every task if the
+     * Java runtime supports them, and a fork-join pool processing tasks
+     * in the order they were submitted otherwise.
+     * @return the executor.
+     */
+    private static Executor defaultExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        }
+    }
+
+    /**
+     * Returns the actor of the room a player is in.
+     * @param player the player.
+     * @return the actor of the player's room.
+     */
+    private RoomActor actorOf(SharedPlayer player) {
+        return actors[player.getPlayer().getCurrentRoom().getId()];
+    }
+
+    /**
+     * Sends a command to a room's actor.
+     * @param actor the actor to run the command.
+     * @param command the command.
+     * @return a future completed once the actor has run the command.
+     */
+    private CompletableFuture<Void> ask(RoomActor actor, Runnable command) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        actor.tell(() -> {
+            try {
+                command.run();
+                done.complete(null);
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        });
+        return done;
+    }
+
+    /**
+     * Hands a player over from his/her room to another room.
+     * @param player the player moving.
+     * @param to the room the player enters.
+     * @param arrive what to do once the player is in the next room.
+     * @return a future completed once the player is in the next room.
+     */
+    private CompletableFuture<Void> handOver(SharedPlayer player, Room to, Runnable arrive) {
+        RoomActor source = actorOf(player);
+        RoomActor target = actors[to.getId()];
+        CompletableFuture<Void> done = new CompletableFuture<>();
+
+        //First phase: the room the player leaves lets him/her go
+        source.tell(() -> {
+            source.getOccupants().remove(player);
+
+            //Second phase: the next room takes the player in
+            target.tell(() -> {
+                target.getOccupants().add(player);
+                arrive.run();
+                done.complete(null);
+            });
+        });
+        return done;
+    }
+}
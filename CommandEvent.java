@@ -0,0 +1,44 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A CommandEvent is recorded by Java Flight Recorder for a command run by
+ * a game, whether it is a command line executed by a CommandInterpreter,
+ * e.g. sent to a session, or a command chosen in the GUI.
+ *
+ * Only commands taking 1 ms or more are recorded unless the recording's
+ * settings lower the threshold, so that a continuous recording shows the
+ * latency spikes of the server along with what caused them. Nothing is
+ * recorded, and almost nothing is spent, when no recording is running.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+@Name("brooklyn.Command")
+@Label("Command")
+@Category("Brooklyn Murder")
+@Description("A command executed by a game")
+@Threshold("1 ms")
+public class CommandEvent extends jdk.jfr.Event {
+    @Label("Session Id")
+    @Description("Id of the session running the game, 0 outside of a GameHost")
+    long sessionId;
+
+    @Label("Command")
+    String command;
+
+    @Label("Argument")
+    String argument;
+
+    @Label("Room Id")
+    @Description("Id of the room the player was in when the command started")
+    int roomId;
+
+    @Label("Quest Id")
+    @Description("Id of the quest of the NPC talked or given to, -1 if none")
+    int questId;
+}
@@ -0,0 +1,177 @@
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * The CommandExecutor class runs game commands on a dedicated engine
+ * thread, so that a slow command never blocks the thread drawing the GUI.
+ *
+ * Commands run one at a time in the order they were submitted, and their
+ * results are handed back in that same order through a result executor,
+ * e.g. Platform::runLater for the JavaFX application thread. Commands
+ * still waiting to run can be cancelled; a command already running always
+ * finishes, since stopping it half way would leave the game inconsistent.
+ * A busy listener, also called through the result executor, is told when
+ * the executor starts and stops having commands to run.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class CommandExecutor {
+    private ArrayDeque<Command<?>> queue;
+    private Executor resultExecutor;
+    private Consumer<Boolean> busyListener;
+    private int pending;
+    private boolean closed;
+    private Thread thread;
+
+    /**
+     * Creates an executor and starts its engine thread.
+     * @param resultExecutor runs the result callbacks, e.g. on the GUI's thread.
+     * @param busyListener told through the result executor whether commands
+     *                     are waiting or running.
+     */
+    public CommandExecutor(Executor resultExecutor, Consumer<Boolean> busyListener) {
+        this.resultExecutor = resultExecutor;
+        this.busyListener = busyListener;
+        queue = new ArrayDeque<>();
+        thread = new Thread(this::runCommands, "game-engine");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns whether or not commands are waiting or running.
+     * @return whether or not the executor is busy.
+     */
+    public synchronized boolean isBusy() {
+        return pending > 0;
+    }
+
+    /**
+     * Submits a command to run after every command submitted before it.
+     * @param command the command, run on the engine thread.
+     * @param onResult called with the command's result through the result executor,
+     *                 unless the command was cancelled.
+     * @param <T> the type of the command's result.
+     * @return the command's future, which can cancel it until it starts running.
+     * @throws IllegalStateException if the executor is closed.
+     */
+    public synchronized <T> Future<T> submit(Callable<T> command, Consumer<T> onResult) {
+        if (closed) {
+            throw new IllegalStateException("The command executor is closed.");
+        }
+        Command<T> submitted = new Command<>(command, onResult);
+        queue.add(submitted);
+        if (pending++ == 0) {
+            busyChanged();
+        }
+        notifyAll();
+        return submitted;
+    }
+
+    /**
+     * Cancels every command which has not started running yet.
+     * @return the amount of commands cancelled.
+     */
+    public synchronized int cancelPending() {
+        int cancelled = 0;
+        for (Command<?> command : queue) {
+            if (command.cancel(false)) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Cancels the commands waiting to run and stops the engine
+     * thread once the running command, if any, has finished.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            cancelPending();
+            notifyAll();
+        }
+    }
+
+    /**
+     * Runs the submitted commands until the executor is closed.
+     */
+    private void runCommands() {
+        while (true) {
+            Command<?> command;
+            synchronized (this) {
+                while (queue.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (queue.isEmpty()) {
+                    return;
+                }
+                command = queue.poll();
+                command.started = true;
+            }
+
+            //Cancelled commands do nothing when run
+            command.run();
+
+            synchronized (this) {
+                if (--pending == 0) {
+                    busyChanged();
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells the busy listener whether the executor is busy. The listener is
+     * told the state at the time it is called, so that notifications racing
+     * each other to the result executor always end on the current state.
+     */
+    private void busyChanged() {
+        resultExecutor.execute(() -> busyListener.accept(isBusy()));
+    }
+
+    /**
+     * A submitted command and the callback receiving its result.
+     */
+    private class Command<T> extends FutureTask<T> {
+        private Consumer<T> onResult;
+        private boolean started;    // guarded by the executor.
+
+        private Command(Callable<T> command, Consumer<T> onResult) {
+            super(command);
+            this.onResult = onResult;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            synchronized (CommandExecutor.this) {
+                return !started && super.cancel(false);
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                return;
+            }
+            resultExecutor.execute(() -> {
+                try {
+                    onResult.accept(get());
+                } catch (Exception e) {
+                    throw new IllegalStateException("Game command failed.", e.getCause() != null ? e.getCause() : e);
+                }
+            });
+        }
+    }
+}
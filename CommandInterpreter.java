@@ -0,0 +1,281 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * The CommandInterpreter class turns text commands into calls to the game,
+ * allowing the game to be played without the GUI.
+ *
+ * The following commands are understood:
+ *     help, look, back, guide, inventory, quests,
+ *     go &lt;room&gt;, travel &lt;room&gt;, take &lt;item&gt;, inspect &lt;item&gt;, talk &lt;npc&gt;,
+ *     give &lt;npc&gt; &lt;item&gt;, accuse &lt;npc&gt;,
+ *     save &lt;file&gt; and load &lt;file&gt;.
+ * Empty lines and lines starting with '#' are ignored.
+ *
+ * Commands which can not be executed from the player's current
+ * position (e.g. talking to someone who is not in the room) are
+ * reported instead of being passed on to the game.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class CommandInterpreter {
+    private Game game;
+
+    /**
+     * Creates an interpreter executing commands on a given game.
+     * @param game the game to execute commands on.
+     */
+    public CommandInterpreter(Game game) {
+        this.game = game;
+    }
+
+    /**
+     * Returns the game commands are executed on.
+     * @return the game commands are executed on.
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Executes a single command.
+     * @param commandLine the command to execute, e.g. "give jake toycar".
+     * @return the output of the command.
+     */
+    public String execute(String commandLine) {
+        StringBuilder output = new StringBuilder();
+        execute(commandLine, output);
+        return output.toString();
+    }
+
+    /**
+     * Executes a single command, appending its output to a given output.
+     * The output can be reused between commands, e.g. by clearing it with
+     * setLength(0), so that executing commands does not create new strings.
+     * @param commandLine the command to execute, e.g. "give jake toycar".
+     * @param output the output to append the output of the command to.
+     */
+    public void execute(String commandLine, StringBuilder output) {
+        String line = commandLine.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+            return;
+        }
+
+        //Split the command word from its argument
+        String command = line;
+        String argument = "";
+        int space = line.indexOf(' ');
+        if (space != -1) {
+            command = line.substring(0, space);
+            argument = line.substring(space + 1).trim();
+        }
+
+        //The game running the command, even if the command loads another one
+        Game current = game;
+        CommandEvent event = current.beginCommand(command, argument);
+
+        switch (command) {
+            case "help":
+                output.append(game.printHelp());
+                break;
+            case "look":
+                game.look(output);
+                break;
+            case "back":
+                game.previousRoom(output);
+                break;
+            case "guide":
+                game.letGinaGuide(output);
+                break;
+            case "inventory":
+                game.displayInventory(output);
+                break;
+            case "quests":
+                game.displayActiveQuests(output);
+                break;
+            case "go":
+                go(argument, output);
+                break;
+            case "travel":
+                travel(argument, output);
+                break;
+            case "take":
+                take(argument, output);
+                break;
+            case "inspect":
+                inspect(argument, output);
+                break;
+            case "talk":
+                talk(argument, output);
+                break;
+            case "give":
+                give(argument, output);
+                break;
+            case "accuse":
+                accuse(argument, output);
+                break;
+            case "save":
+                save(argument, output);
+                break;
+            case "load":
+                load(argument, output);
+                break;
+            default:
+                output.append("Unknown command: ").append(line).append('\n');
+        }
+
+        current.endCommand(event);
+    }
+
+    // ------ command checks: ------
+
+    /**
+     * Moves the player if the room is reachable.
+     * @param roomName the room to go to.
+     * @param output the output of the command.
+     */
+    private void go(String roomName, StringBuilder output) {
+        if (game.getPlayer().getCurrentRoom().getExit(roomName) == null) {
+            output.append("There is no exit to ").append(roomName).append(".\n");
+            return;
+        }
+        game.goRoom(roomName, output);
+    }
+
+    /**
+     * Moves the player along the shortest route to a room.
+     * @param roomName the room to travel to.
+     * @param output the output of the command.
+     */
+    private void travel(String roomName, StringBuilder output) {
+        if (roomName.isEmpty()) {
+            output.append("Travel where?\n");
+            return;
+        }
+        game.travel(roomName, output);
+    }
+
+    /**
+     * Takes an item if it is in the player's current room.
+     * @param itemName the item to take.
+     * @param output the output of the command.
+     */
+    private void take(String itemName, StringBuilder output) {
+        Item item = game.findItem(itemName);
+        if (item == null || !game.getPlayer().getCurrentRoom().containsItem(item)) {
+            output.append("There is no ").append(itemName).append(" in this room.\n");
+            return;
+        }
+        game.takeItem(itemName, output);
+    }
+
+    /**
+     * Inspects an item if it is in the player's inventory.
+     * @param itemName the item to inspect.
+     * @param output the output of the command.
+     */
+    private void inspect(String itemName, StringBuilder output) {
+        Item item = game.findItem(itemName);
+        if (item == null || !game.getPlayer().getInventory().contains(item.getId())) {
+            output.append("You do not have any ").append(itemName).append(".\n");
+            return;
+        }
+        game.inspectItem(itemName, output);
+    }
+
+    /**
+     * Talks to an NPC if he/she is in the player's current room.
+     * @param characterName the NPC to talk to.
+     * @param output the output of the command.
+     */
+    private void talk(String characterName, StringBuilder output) {
+        if (game.getPlayer().getCurrentRoom().characterInRoom(characterName) == null) {
+            output.append(characterName).append(" is not in the room.\n");
+            return;
+        }
+        game.interact(characterName, output);
+    }
+
+    /**
+     * Gives an item to an NPC if he/she is in the player's current room.
+     * @param argument the NPC's name followed by the item's name.
+     * @param output the output of the command.
+     */
+    private void give(String argument, StringBuilder output) {
+        int space = argument.indexOf(' ');
+        if (space == -1) {
+            output.append("Give what to whom?\n");
+            return;
+        }
+        String characterName = argument.substring(0, space);
+        String itemName = argument.substring(space + 1).trim();
+        if (game.getPlayer().getCurrentRoom().characterInRoom(characterName) == null) {
+            output.append(characterName).append(" is not in the room.\n");
+            return;
+        }
+        game.give(characterName, itemName, output);
+    }
+
+    /**
+     * Accuses an NPC of the murder once the player is allowed to.
+     * @param characterName the NPC to accuse.
+     * @param output the output of the command.
+     */
+    private void accuse(String characterName, StringBuilder output) {
+        if (game.getCulprit() == null) {
+            output.append("Nobody can be accused in this world.\n");
+        } else if (!game.canAccuse()) {
+            output.append("You are not ready to accuse anyone yet.\n");
+        } else if (characterName.equalsIgnoreCase(game.getCulprit().getName())) {
+            game.gameWon(output);
+        } else {
+            output.append(game.gameOver());
+        }
+    }
+
+    /**
+     * Saves the game to a file.
+     * @param fileName the file to save the game to.
+     * @param output the output of the command.
+     */
+    private void save(String fileName, StringBuilder output) {
+        if (fileName.isEmpty()) {
+            output.append("Save to which file?\n");
+            return;
+        }
+        try {
+            SaveGame.save(game, Paths.get(fileName));
+            output.append("Game saved to ").append(fileName).append(".\n");
+        } catch (IOException e) {
+            output.append("Could not save the game: ").append(e.getMessage()).append('\n');
+        }
+    }
+
+    /**
+     * Replaces the game with one loaded from a file.
+     * Journaled games can not be replaced, as their journal
+     * would no longer match the game.
+     * @param fileName the file to load the game from.
+     * @param output the output of the command.
+     */
+    private void load(String fileName, StringBuilder output) {
+        if (fileName.isEmpty()) {
+            output.append("Load which file?\n");
+            return;
+        }
+        if (game.getJournal() != null) {
+            output.append("A journaled game can not be replaced by a saved game.\n");
+            return;
+        }
+        try {
+            Game loaded = SaveGame.load(Paths.get(fileName), new GameSetup(game.getTemplate()), game.getPrompt());
+            loaded.setSessionId(game.getSessionId());
+            game = loaded;
+            output.append("Game loaded from ").append(fileName).append(".\n");
+        } catch (IOException e) {
+            output.append("Could not load the game: ").append(e.getMessage()).append('\n');
+        }
+    }
+}
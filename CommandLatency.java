@@ -0,0 +1,137 @@
+import java.beans.ConstructorProperties;
+
+/**
+ * A CommandLatency holds how long a command of the game took, read from
+ * its LatencyHistogram at a given time. It is what monitoring tools see
+ * of a command through GameMetricsMXBean.
+ *
+ * The count is of every run of the command. Only some runs are timed,
+ * one in GameMetrics.SAMPLE_INTERVAL, and the latencies are of those
+ * samples.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class CommandLatency {
+    private long count;
+    private long samples;
+    private long meanNanos;
+    private long p50Nanos;
+    private long p90Nanos;
+    private long p99Nanos;
+    private long p999Nanos;
+    private long maxNanos;
+
+    /**
+     * Creates the latencies of a command.
+     * @param count how many times the command ran.
+     * @param samples how many of its runs were timed.
+     * @param meanNanos the mean latency in nanoseconds.
+     * @param p50Nanos the median latency in nanoseconds.
+     * @param p90Nanos the 90th percentile in nanoseconds.
+     * @param p99Nanos the 99th percentile in nanoseconds.
+     * @param p999Nanos the 99.9th percentile in nanoseconds.
+     * @param maxNanos the highest latency in nanoseconds.
+     */
+    @ConstructorProperties({"count", "samples", "meanNanos", "p50Nanos", "p90Nanos", "p99Nanos", "p999Nanos",
+            "maxNanos"})
+    public CommandLatency(long count, long samples, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos,
+                          long p999Nanos, long maxNanos) {
+        this.count = count;
+        this.samples = samples;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * Reads the latencies of a command from the histogram of its timed runs.
+     * @param count how many times the command ran.
+     * @param histogram the histogram of the command's timed runs.
+     * @return the command's latencies.
+     */
+    public static CommandLatency of(long count, LatencyHistogram histogram) {
+        return new CommandLatency(count, histogram.getCount(), histogram.getMean(), histogram.getPercentile(50),
+                histogram.getPercentile(90), histogram.getPercentile(99), histogram.getPercentile(99.9),
+                histogram.getMax());
+    }
+
+    // ------ accessor methods: ------
+
+    /**
+     * Returns how many times the command ran, timed or not.
+     * @return the amount of runs.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns how many runs of the command were timed.
+     * @return the amount of timed runs the latencies are of.
+     */
+    public long getSamples() {
+        return samples;
+    }
+
+    /**
+     * Returns the mean latency of the command.
+     * @return the mean latency in nanoseconds.
+     */
+    public long getMeanNanos() {
+        return meanNanos;
+    }
+
+    /**
+     * Returns the median latency of the command.
+     * @return the median latency in nanoseconds.
+     */
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    /**
+     * Returns the 90th percentile of the command's latency.
+     * @return the 90th percentile in nanoseconds.
+     */
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    /**
+     * Returns the 99th percentile of the command's latency.
+     * @return the 99th percentile in nanoseconds.
+     */
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    /**
+     * Returns the 99.9th percentile of the command's latency.
+     * @return the 99.9th percentile in nanoseconds.
+     */
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    /**
+     * Returns the highest latency of the command.
+     * @return the highest latency in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Prints out the latencies of the command.
+     * @return the latencies, e.g. for a log.
+     */
+    public String toString() {
+        return "count=" + count + " samples=" + samples + " mean=" + meanNanos + "ns p50=" + p50Nanos + "ns p90=" + p90Nanos
+                + "ns p99=" + p99Nanos + "ns p99.9=" + p999Nanos + "ns max=" + maxNanos + "ns";
+    }
+}
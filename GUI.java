@@ -1,26 +1,50 @@
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
 /**
  * The GUI class creates the GUI for the game and launches it.
  * All event handlers make reference to game mechanics and
- * methods present in the game class.
+ * methods present in the game class. Game commands run on an
+ * engine thread through a CommandExecutor, so that the window
+ * keeps responding however long a command takes.
  *
  * @author Henri Boistel de Belloy
  * @version 2018.11.30
  */
 
-public class GUI extends Application{
+public class GUI extends Application implements GameListener {
+    private static final Path SAVE_FILE = Paths.get("brooklyn-murder.save");
+    private static final int ROOM_CHANGED = 1;
+    private static final int ITEMS_CHANGED = 2;
+    private static final int INVENTORY_CHANGED = 4;
+    private static final int CHARACTERS_CHANGED = 8;
+    private static final int QUESTS_CHANGED = 16;
+    private static final int ACCUSE_CHANGED = 32;
+    private static final int ALL_CHANGES = 63;
 
     private Stage window;
     private Menu talk, take, changeRoomAction, give, inspectItem, accuse;
     private TextArea inventoryDisplay, quests, roomDescription, generalOutput;
+    private ProgressIndicator busy;
+    private String[] inventoryItems = new String[0];
+    private String[][] characters = new String[0][];
 
-    private Game game;
+    private Game game;              // only used on the engine thread once the GUI is shown.
+    private CommandExecutor executor;
+    private int changes;            // changes not shown yet, on the engine thread.
 
     /**
      * Main method of the program, launches the game.
@@ -31,8 +55,8 @@ public class GUI extends Application{
 
     @Override
     public void start(Stage primaryStage){
-        //Start and setup the game
-        game = new Game();
+        //Start and setup the game, which runs on its own engine thread
+        game = new Game(this::confirm);
 
         //Setup the GUI
         window = primaryStage;
@@ -54,7 +78,6 @@ public class GUI extends Application{
         //Center pane displaying action outputs and current room information
         roomDescription = new TextArea();
         roomDescription.setWrapText(true);
-        roomDescription.setText(game.getPlayer().getCurrentRoom().getDescription());
         roomDescription.setEditable(false);
         Label roomTitle = new Label("Current Room");
 
@@ -74,26 +97,30 @@ public class GUI extends Application{
         HBox commands = new HBox(10);
 
         Button lookAround = new Button("look around");
-        lookAround.setOnAction(e -> generalOutput.setText(game.look()));
+        lookAround.setOnAction(e -> run(() -> game.look()));
 
         Button letGinaGuide = new Button("let Gina guide");
-        letGinaGuide.setOnAction(e -> {
-            generalOutput.setText(game.letGinaGuide());
-            updateGUI();
-        });
+        letGinaGuide.setOnAction(e -> run(() -> game.letGinaGuide()));
 
         Button helpButton = new Button("help");
-        helpButton.setOnAction(e -> generalOutput.setText(game.printHelp()));
+        helpButton.setOnAction(e -> run(() -> game.printHelp()));
 
         Button back = new Button("go back");
-        back.setOnAction(e -> {
-            generalOutput.setText(game.previousRoom());
-            updateGUI();
-        });
+        back.setOnAction(e -> run(() -> game.previousRoom()));
+
+        Button save = new Button("save");
+        save.setOnAction(e -> saveGame());
+
+        Button load = new Button("load");
+        load.setOnAction(e -> loadGame());
 
         Button quit = new Button("quit");
         quit.setOnAction(e -> closeGame());
 
+        //Spinning while commands are waiting or running
+        busy = new ProgressIndicator();
+        busy.setVisible(false);
+
         //Menu bar as part of the bottom bar containing actions
         //that take parameters like talk <NPC> or take <Item>
         MenuBar actions = new MenuBar();
@@ -105,7 +132,7 @@ public class GUI extends Application{
         accuse = new Menu("Accuse");
         for (NPC character : game.getAllCharacters()) {
             MenuItem accuseOption = new MenuItem(character.getName());
-            if (character.getName().equals("Charles")) {
+            if (character == game.getCulprit()) {
                 accuseOption.setOnAction(e -> gameWon());
             } else {
                 accuseOption.setOnAction(e -> gameLost());
@@ -116,7 +143,7 @@ public class GUI extends Application{
 
         actions.getMenus().addAll(changeRoomAction, take, talk, give, inspectItem, accuse);
 
-        commands.getChildren().addAll(actions, back, lookAround, letGinaGuide, helpButton, quit);
+        commands.getChildren().addAll(actions, back, lookAround, letGinaGuide, helpButton, save, load, quit, busy);
 
         //Setup the GridPane with all the components
         layout.setPadding(new Insets(10, 10, 10, 10));
@@ -141,74 +168,215 @@ public class GUI extends Application{
             closeGame();
         });
 
-        //Initialise the GUI and show the window
+        //Initialise the GUI, keep it up to date and show the window
+        executor = new CommandExecutor(Platform::runLater, isBusy -> busy.setVisible(isBusy));
+        game.addListener(this);
         updateGUI();
         window.setScene(new Scene(layout, 700,400));
         window.show();
     }
 
+    /**
+     * Redraws every part of the GUI from the current game,
+     * e.g. once the game was started. After that, controls are
+     * only updated when the game reports a change.
+     */
     public void updateGUI() {
-        //Update the left panel with quests and player inventory.
-        quests.setText(game.displayActiveQuests());
-        inventoryDisplay.setText(game.displayInventory());
-
-        //Update the menu commands to match the available options given the current room.
-        talk.getItems().setAll();
-        for (NPC character: game.getPlayer().getCurrentRoom().getCharacters()) {
-            MenuItem characterOption = new MenuItem(character.getName());
-            characterOption.setOnAction(e -> {
-                generalOutput.setText(game.interact(character.getName().toLowerCase()));
-                updateGUI();
-            });
-            talk.getItems().add(characterOption);
+        run(() -> {
+            changes = ALL_CHANGES;
+            return null;
+        });
+    }
+
+    // ------ game change events, on the engine thread: ------
+
+    @Override
+    public void roomChanged(Room room) {
+        changes |= ROOM_CHANGED | ITEMS_CHANGED | CHARACTERS_CHANGED;
+    }
+
+    @Override
+    public void roomItemsChanged(Room room) {
+        changes |= ITEMS_CHANGED;
+    }
+
+    @Override
+    public void inventoryChanged(Inventory inventory) {
+        changes |= INVENTORY_CHANGED;
+    }
+
+    @Override
+    public void questsChanged(Player player) {
+        changes |= QUESTS_CHANGED;
+    }
+
+    @Override
+    public void characterEntered(NPC character, Room room) {
+        changes |= CHARACTERS_CHANGED;
+    }
+
+    @Override
+    public void characterLeft(NPC character, Room room) {
+        changes |= CHARACTERS_CHANGED;
+    }
+
+    @Override
+    public void accuseUnlocked() {
+        changes |= ACCUSE_CHANGED;
+    }
+
+    // ------ commands: ------
+
+    /**
+     * Runs a game command on the engine thread and shows its output.
+     * @param command the command, returning its output.
+     */
+    private void run(Callable<String> command) {
+        run(command, output -> generalOutput.setText(output));
+    }
+
+    /**
+     * Runs a game command on the engine thread. Once it has run, the parts
+     * of the game it changed are copied into a GameView, which is then shown
+     * on the JavaFX application thread.
+     * @param command the command, returning its output, or null if it has none.
+     * @param onOutput called on the JavaFX application thread with the output.
+     */
+    private void run(Callable<String> command, Consumer<String> onOutput) {
+        executor.submit(() -> {
+            String output = command.call();
+            GameView view = new GameView(game, changes, output);
+            changes = 0;
+            return view;
+        }, view -> {
+            show(view);
+            if (view.output != null) {
+                onOutput.accept(view.output);
+            }
+        });
+    }
+
+    /**
+     * Asks a question through a ConfirmWindow, on the JavaFX application
+     * thread, while the command asking it waits on the engine thread.
+     * @param title the title of the question.
+     * @param message the question itself.
+     * @return true if the answer is yes, false otherwise.
+     */
+    private boolean confirm(String title, String message) {
+        if (Platform.isFxApplicationThread()) {
+            return ConfirmWindow.display(title, message);
         }
-        take.getItems().setAll();
-        for (Item item: game.getPlayer().getCurrentRoom().getItemsInRoom().keySet()) {
-            MenuItem itemOption = new MenuItem(item.getName());
-            itemOption.setOnAction(e -> {
-                generalOutput.setText(game.takeItem(item.getName()));
-                updateGUI();
-            });
-            take.getItems().add(itemOption);
+        FutureTask<Boolean> question = new FutureTask<>(() -> ConfirmWindow.display(title, message));
+        Platform.runLater(question);
+        try {
+            return question.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not ask: " + title, e.getCause());
         }
-        changeRoomAction.getItems().setAll();
-        for (String exitName : game.getPlayer().getCurrentRoom().getAllExits().keySet()) {
-            MenuItem exitOption = new MenuItem(exitName);
-            exitOption.setOnAction(e -> {
-                generalOutput.setText(game.goRoom(exitName));
-                updateGUI();
-            });
-            changeRoomAction.getItems().add(exitOption);
+    }
+
+    /**
+     * Updates the controls showing what a command changed.
+     * @param view the changed parts of the game.
+     */
+    private void show(GameView view) {
+        if (view.roomDescription != null) {
+            roomDescription.setText(view.roomDescription);
+            changeRoomAction.getItems().setAll();
+            for (String exitName : view.exits) {
+                MenuItem exitOption = new MenuItem(exitName);
+                exitOption.setOnAction(e -> run(() -> game.goRoom(exitName)));
+                changeRoomAction.getItems().add(exitOption);
+            }
         }
-        give.getItems().setAll();
-        for (NPC character: game.getPlayer().getCurrentRoom().getCharacters()) {
-            Menu characterMenu = new Menu(character.getName());
-            for (Item item : game.getPlayer().getInventory()) {
-                MenuItem menuItem = new MenuItem(item.getName());
-                characterMenu.getItems().add(menuItem);
-                menuItem.setOnAction(e -> {
-                    generalOutput.setText(game.give(character.getName().toLowerCase(), item.getName()));
-                    updateGUI();
-                });
-            }
-            give.getItems().add(characterMenu);
+        if (view.roomItems != null) {
+            take.getItems().setAll();
+            for (String itemName : view.roomItems) {
+                MenuItem itemOption = new MenuItem(itemName);
+                itemOption.setOnAction(e -> run(() -> game.takeItem(itemName)));
+                take.getItems().add(itemOption);
+            }
         }
-        inspectItem.getItems().setAll();
-        for (Item item: game.getPlayer().getInventory()) {
-            MenuItem itemOption = new MenuItem(item.getName());
-            itemOption.setOnAction(e -> {
-                generalOutput.setText(game.inspectItem(item.getName()));
-                updateGUI();
-            });
-            inspectItem.getItems().add(itemOption);
+        if (view.inventory != null) {
+            inventoryDisplay.setText(view.inventory);
+            inventoryItems = view.inventoryItems;
+            inspectItem.getItems().setAll();
+            for (String itemName : inventoryItems) {
+                MenuItem itemOption = new MenuItem(itemName);
+                itemOption.setOnAction(e -> run(() -> game.inspectItem(itemName)));
+                inspectItem.getItems().add(itemOption);
+            }
         }
-
-        if (game.canAccuse()) {
-            accuse.setVisible(true);
+        if (view.characters != null) {
+            characters = view.characters;
+            talk.getItems().setAll();
+            for (String[] character : characters) {
+                MenuItem characterOption = new MenuItem(character[0]);
+                characterOption.setOnAction(e -> run(() -> game.interact(character[1])));
+                talk.getItems().add(characterOption);
+            }
+        }
+        if (view.characters != null || view.inventory != null) {
+            give.getItems().setAll();
+            for (String[] character : characters) {
+                Menu characterMenu = new Menu(character[0]);
+                for (String itemName : inventoryItems) {
+                    MenuItem menuItem = new MenuItem(itemName);
+                    menuItem.setOnAction(e -> run(() -> game.give(character[1], itemName)));
+                    characterMenu.getItems().add(menuItem);
+                }
+                give.getItems().add(characterMenu);
+            }
         }
+        if (view.quests != null) {
+            quests.setText(view.quests);
+        }
+        if (view.accuse != null) {
+            accuse.setVisible(view.accuse);
+        }
+    }
 
-        //Update the room description
-        roomDescription.setText(game.getPlayer().getCurrentRoom().getDescription());
+    /**
+     * Saves the current game, replacing any previous save.
+     */
+    private void saveGame() {
+        run(() -> {
+            CommandEvent event = game.beginCommand("save", SAVE_FILE.toString());
+            try {
+                SaveGame.save(game, SAVE_FILE);
+                return "Game saved.\n";
+            } catch (IOException e) {
+                return "Could not save the game: " + e.getMessage() + "\n";
+            } finally {
+                game.endCommand(event);
+            }
+        });
+    }
+
+    /**
+     * Replaces the current game with the saved one.
+     */
+    private void loadGame() {
+        Game current = game;
+        run(() -> {
+            CommandEvent event = current.beginCommand("load", SAVE_FILE.toString());
+            try {
+                Game loaded = SaveGame.load(SAVE_FILE, new GameSetup(game.getTemplate()), game.getPrompt());
+                game.removeListener(this);
+                game = loaded;
+                game.addListener(this);
+                changes = ALL_CHANGES;
+                return "Game loaded.\n";
+            } catch (IOException e) {
+                return "Could not load the game: " + e.getMessage() + "\n";
+            } finally {
+                current.endCommand(event);
+            }
+        });
     }
 
     /**
@@ -217,6 +385,7 @@ public class GUI extends Application{
      */
     private void closeGame() {
         if (ConfirmWindow.display("Quit", "Are you sure you want to quit?")) {
+            executor.close();
             window.close();
         }
     }
@@ -225,8 +394,11 @@ public class GUI extends Application{
      * Displays the game over pop-up and terminates the game.
      */
     private void gameLost() {
-        AlertBox.display("You Lost", game.gameOver());
-        window.close();
+        run(() -> game.gameOver(), gameOverMessage -> {
+            AlertBox.display("You Lost", gameOverMessage);
+            executor.close();
+            window.close();
+        });
     }
 
     /**
@@ -234,12 +406,67 @@ public class GUI extends Application{
      * remain in the game. Terminates the game if the user chooses no.
      */
     private void gameWon() {
-        String congratsMessage = "Congratulations on finding the murderer. Here is a snippet of the arrest:\n";
-        String winMessage = game.gameWon();
-        String continueMessage = "\nDo you wan to continue roaming around the precinct?";
-        if (!ConfirmWindow.display("You Won", congratsMessage + winMessage + continueMessage)) {
-            window.close();
+        run(() -> game.gameWon(), winMessage -> {
+            String congratsMessage = "Congratulations on finding the murderer. Here is a snippet of the arrest:\n";
+            String continueMessage = "\nDo you wan to continue roaming around the precinct?";
+            if (!ConfirmWindow.display("You Won", congratsMessage + winMessage + continueMessage)) {
+                executor.close();
+                window.close();
+            }
+            accuse.setVisible(false);
+        });
+    }
+
+    /**
+     * A copy of the parts of a game changed by a command, taken on the
+     * engine thread so that the GUI never reads the game while it changes.
+     * Parts which did not change are null.
+     */
+    private static class GameView {
+        private String output;
+        private String roomDescription;
+        private String[] exits;
+        private String[] roomItems;
+        private String inventory;
+        private String[] inventoryItems;
+        private String[][] characters;      // name and lower case name of each NPC.
+        private String quests;
+        private Boolean accuse;
+
+        private GameView(Game game, int changes, String output) {
+            this.output = output;
+            Room room = game.getPlayer().getCurrentRoom();
+            if ((changes & ROOM_CHANGED) != 0) {
+                roomDescription = room.getDescription();
+                exits = room.getAllExits().keySet().toArray(new String[0]);
+            }
+            if ((changes & ITEMS_CHANGED) != 0) {
+                roomItems = new String[room.getItemCount()];
+                for (int i = 0; i < roomItems.length; i++) {
+                    roomItems[i] = room.getItem(i).getName();
+                }
+            }
+            if ((changes & INVENTORY_CHANGED) != 0) {
+                Inventory playerInventory = game.getPlayer().getInventory();
+                inventory = game.displayInventory();
+                inventoryItems = new String[playerInventory.size()];
+                for (int slot = 0; slot < inventoryItems.length; slot++) {
+                    inventoryItems[slot] = game.getItem(playerInventory.getItemId(slot)).getName();
+                }
+            }
+            if ((changes & CHARACTERS_CHANGED) != 0) {
+                characters = new String[room.getCharacters().size()][];
+                for (int i = 0; i < characters.length; i++) {
+                    NPC character = room.getCharacters().get(i);
+                    characters[i] = new String[] {character.getName(), character.getLowerCaseName()};
+                }
+            }
+            if ((changes & QUESTS_CHANGED) != 0) {
+                quests = game.displayActiveQuests();
+            }
+            if ((changes & ACCUSE_CHANGED) != 0) {
+                accuse = game.canAccuse();
+            }
         }
-        accuse.setVisible(false);
     }
-}
\ No newline at end of file
+}
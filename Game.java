@@ -1,6 +1,7 @@
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 /**
  *  This class is the main class of the "Brooklyn Murder" application.
@@ -24,24 +25,111 @@ import java.util.Random;
 
 public class Game
 {
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private WorldTemplate template;
     private Player player;
     private ArrayList<NPC> allCharacters;
     private ArrayList<Room> allRooms;
+    private Room[] roomsById;
     private HashMap<String, Quest> allQuests;
-    private HashMap<String, Item> allItems;
+    private Room teleporterRoom;
+    private NPC guide;
+    private Quest guideQuest;
+    private Quest accuseQuest;
+    private Quest finalQuest;
+    private NPC culprit;
+    private Item[] itemsById;
+    private Quest[] questsById;
+    private QuestGraph questGraph;
+    private PromptPolicy prompt;
+    private PromptPolicy recordingPrompt;
+    private boolean questAccepted;
+    private GameRandom random;
+    private NpcSimulation simulation;
+    private long turn;
+    private GameJournal journal;
+    private long sessionId;
+    private RoomRoutes.Search routeSearch;
+    private GameMetrics metrics = GameMetrics.getDefault();
+    private int[] untilTimed;       // runs of each measured command left before the next one is timed.
+    private ArrayList<GameListener> listeners = new ArrayList<>();
 
     /**
      * Create the game, the player and
      * load all of the game's components.
+     * @param prompt the policy answering quest requests,
+     *               allowing the game to run without a GUI.
+     */
+    public Game(PromptPolicy prompt)
+    {
+        this(new GameSetup(), prompt, GameRandom.newSeed());
+    }
+
+    /**
+     * Create the game and the player
+     * from already loaded game components.
+     * @param setup the game's components.
+     * @param prompt the policy answering quest requests.
+     */
+    public Game(GameSetup setup, PromptPolicy prompt)
+    {
+        this(setup, prompt, GameRandom.newSeed());
+    }
+
+    /**
+     * Create the game and the player from already loaded
+     * game components and a given random seed. The same seed
+     * and the same commands always result in the same game.
+     * @param setup the game's components.
+     * @param prompt the policy answering quest requests.
+     * @param seed the seed of the game's random generator.
      */
-    public Game()
+    public Game(GameSetup setup, PromptPolicy prompt, long seed)
     {
-        GameSetup setup = new GameSetup();
+        this.prompt = prompt;
+        recordingPrompt = this::confirm;
+        random = new GameRandom(seed);
+        untilTimed = new int[GameMetrics.COMMAND_COUNT];
+        for (int command = 0; command < GameMetrics.COMMAND_COUNT; command++) {
+            untilTimed[command] = 1 + (int) ((seed + command) & (GameMetrics.SAMPLE_INTERVAL - 1));
+        }
         allCharacters = setup.getAllCharacters();
         allRooms = setup.getAllRooms();
         allQuests = setup.getAllQuests();
-        allItems = setup.getAllItems();
-        player = new Player(allRooms.get(0));
+        HashMap<String, Item> allItems = setup.getAllItems();
+        itemsById = new Item[allItems.size()];
+        for (Item item : allItems.values()) {
+            itemsById[item.getId()] = item;
+        }
+        questsById = new Quest[allQuests.size()];
+        for (Quest quest : allQuests.values()) {
+            questsById[quest.getId()] = quest;
+        }
+        roomsById = allRooms.toArray(new Room[0]);
+        template = setup.getTemplate();
+        questGraph = template.getQuestGraph();
+        simulation = new NpcSimulation(allCharacters.toArray(new NPC[0]), roomsById, template.getRoomGraph(), seed,
+                ForkJoinPool.commonPool());
+        if (template.getTeleporterRoom() != -1) {
+            teleporterRoom = allRooms.get(template.getTeleporterRoom());
+        }
+        if (template.getGuide() != -1) {
+            guide = allCharacters.get(template.getGuide());
+        }
+        if (template.getGuideQuest() != -1) {
+            guideQuest = questsById[template.getGuideQuest()];
+        }
+        if (template.getAccuseQuest() != -1) {
+            accuseQuest = questsById[template.getAccuseQuest()];
+        }
+        if (template.getFinalQuest() != -1) {
+            finalQuest = questsById[template.getFinalQuest()];
+        }
+        if (template.getCulprit() != -1) {
+            culprit = allCharacters.get(template.getCulprit());
+        }
+        player = new Player(allRooms.get(template.getStartingRoom()), template.getItemRegistry(), itemsById);
     }
 
     // ------ implementations of user commands: ------
@@ -52,13 +140,11 @@ public class Game
      * @return The help message.
      */
     public String printHelp() {
-        String helpMsg = "";
-        helpMsg += ("You're friends have been abducted and you want to get them back. " +
+        return "You're friends have been abducted and you want to get them back. " +
                 "Hopefully Brooklyn's 99th precinct can help you with that.\n\n" +
                 "Use the actions available to you below to go around the precinct, " +
                 "talk to characters, complete quests and solve the murder. You can use " +
-                "the notes area on the right if you want to write anything down.");
-        return helpMsg;
+                "the notes area on the right if you want to write anything down.";
     }
 
     /**
@@ -68,20 +154,37 @@ public class Game
      * @return any message to be outputted on the GUI.
      */
     public String goRoom(String direction) {
-        String output = "";
+        return render("go", direction, output -> goRoom(direction, output));
+    }
+
+    /**
+     * Allows the player to move to an adjacent room
+     * given the name of the next room.
+     * @param direction the name of the next room.
+     * @param output the output to append any message to.
+     */
+    public void goRoom(String direction, StringBuilder output) {
+        long start = startTimer(GameMetrics.GO_ROOM);
+        Room nextRoom = player.getCurrentRoom().getExit(direction);
         player.changeRoom(direction);
-        output += checkForRoomQuest();
+        roomChanged();
+        checkForRoomQuest(output);
 
         //If player moved to teleporter room, teleport him
-        if (player.getCurrentRoom() == allRooms.get(9)) {
-            output += "\nYou went to the holding cell. As you did not want to be there you teleported away.\n";
-            teleportPlayer();
+        if (player.getCurrentRoom() == teleporterRoom) {
+            output.append("\nYou went to the holding cell. As you did not want to be there you teleported away.\n");
+
+            //The teleport's own messages have never been shown here
+            int length = output.length();
+            teleportPlayer(output);
+            output.setLength(length);
         }
 
         //Call end of turn
         nextTurn();
 
-        return output;
+        record(GameJournal.GO, nextRoom.getId(), 0);
+        stopTimer(GameMetrics.GO_ROOM, start);
     }
 
     /**
@@ -89,13 +192,75 @@ public class Game
      * @return any message to be outputted on the GUI.
      */
     public String previousRoom() {
-        String output = player.goBack();
-        output += checkForRoomQuest();
+        return render("back", "", this::previousRoom);
+    }
+
+    /**
+     * Allows the player to go to his previous room.
+     * @param output the output to append any message to.
+     */
+    public void previousRoom(StringBuilder output) {
+        Room room = player.getCurrentRoom();
+        player.goBack(output);
+        if (player.getCurrentRoom() != room) {
+            roomChanged();
+        }
+        checkForRoomQuest(output);
 
         //Call end of turn
         nextTurn();
 
-        return output;
+        record(GameJournal.BACK, 0, 0);
+    }
+
+    /**
+     * Moves the player along the shortest route to a given room.
+     * @param roomName the name of the room to travel to.
+     * @return any message to be outputted on the GUI.
+     */
+    public String travel(String roomName) {
+        return render("travel", roomName, output -> travel(roomName, output));
+    }
+
+    /**
+     * Moves the player along the shortest route to a given room.
+     * Each step is an ordinary move to the next room, so it takes a
+     * turn and can complete quests on the way. Routes never pass
+     * through the teleporter room.
+     * @param roomName the name of the room to travel to.
+     * @param output the output to append any message to.
+     */
+    public void travel(String roomName, StringBuilder output) {
+        int target = template.findRoom(roomName);
+        if (target == -1) {
+            output.append("There is no room called ").append(roomName).append(".\n");
+            return;
+        }
+        int start = player.getCurrentRoom().getId();
+        if (start == target) {
+            output.append("You are already there.\n");
+            return;
+        }
+        if (routeSearch == null) {
+            routeSearch = new RoomRoutes.Search();
+        }
+        int steps = template.getRoomRoutes().findRoute(start, target, routeSearch);
+        if (steps == -1) {
+            output.append("There is no way to ").append(roomName).append(" from here.\n");
+            return;
+        }
+
+        for (int step = 0; step < steps; step++) {
+            WorldTemplate.RoomDefinition room = template.getRoom(player.getCurrentRoom().getId());
+            goRoom(room.getExitDirection(routeSearch.getRouteExit(step)), output);
+
+            //Stop if the player did not end up on the route, e.g. after being teleported
+            if (player.getCurrentRoom().getId() != routeSearch.getRouteRoom(step)) {
+                return;
+            }
+        }
+        output.append("You walked through ").append(steps).append(steps == 1 ? " room" : " rooms")
+                .append(" to get there.\n");
     }
 
     /**
@@ -106,24 +271,48 @@ public class Game
      * @return the interaction to be outputted on the GUI.
      */
     public String interact(String characterName) {
-        String output = "";
+        return render("talk", characterName, output -> interact(characterName, output));
+    }
+
+    /**
+     * Allows the player to talk to NPCs
+     * and receive quests from them.
+     * @param characterName the name of the
+     *           character to interact with.
+     * @param output the output to append the interaction to.
+     */
+    public void interact(String characterName, StringBuilder output) {
+        long start = startTimer(GameMetrics.INTERACT);
         NPC character = player.getCurrentRoom().characterInRoom(characterName);
-        output += character.interact();
+        questAccepted = false;
+        character.interact(recordingPrompt, random, output);
 
         //Check if the player has just accepted a quest and updates the player's active quests.
         if (character.getQuest() != null) {
             if (!player.getActiveQuests().contains(character.getQuest()) && character.getQuest().isQuestStarted()) {
                 player.addActiveQuest(character.getQuest());
-                for (String questName : character.getQuest().getUnlocksQuests().split("/")) {
-                    if (!questName.equals("")) {
-                        allQuests.get(questName).initiateQuest();
+                if (metrics != null) {
+                    metrics.questStarted();
+                }
+                questChanged(character.getQuest(), QuestEvent.STARTED);
+                int questId = character.getQuest().getId();
+                for (int i = 0; i < questGraph.getStartUnlockCount(questId); i++) {
+                    initiateQuest(questsById[questGraph.getStartUnlock(questId, i)]);
+                }
+                for (GameListener listener : listeners) {
+                    listener.questsChanged(player);
+                }
+                if (!listeners.isEmpty() && canAccuse()) {
+                    for (GameListener listener : listeners) {
+                        listener.accuseUnlocked();
                     }
                 }
             }
             //Add to the output any quest complition messages there may be.
-            output += checkForFinishedQuest(character.getQuest());
+            checkForFinishedQuest(character.getQuest(), output);
         }
-        return output;
+        record(GameJournal.TALK, character.getId(), questAccepted ? 1 : 0);
+        stopTimer(GameMetrics.INTERACT, start);
     }
 
     /**
@@ -134,32 +323,47 @@ public class Game
      * @return any output message for the GUI
      */
     public String give(String characterName, String itemName) {
-        String output = "";
+        return render("give", characterName + " " + itemName, output -> give(characterName, itemName, output));
+    }
+
+    /**
+     * Allows the player to give items to NPCs
+     * and complete quests
+     * @param characterName name of the NC to give to
+     * @param itemName name of the item to give
+     * @param output the output to append any message to.
+     */
+    public void give(String characterName, String itemName, StringBuilder output) {
+        long start = startTimer(GameMetrics.GIVE);
         NPC character = player.getCurrentRoom().characterInRoom(characterName);
 
         //Check if the NPC has a quest requiring that item.
-        if (character.getQuest() != null && character.getQuest().isQuestStarted()) {
-            Item item = character.getQuest().getRequestedItem(itemName);
-            if (item != null) {
-                int amountToGive = character.getQuest().getAmountWanted(item);
-
-                //If item successfully given to NPC output a success
-                // message and checks if a quest was finished.
-                if (player.give(item, amountToGive)) {
-                    output = ("Successfully gave " + amountToGive + " " +
-                            item.getStringName(amountToGive) + " to " + character.getName() + "\n");
-                    character.getQuest().removeRequestedItem(item);
-                    output += ("\n" + checkForFinishedQuest(character.getQuest()));
-                }
-            } else {
+        Item item = findItem(itemName);
+        if (character.getQuest() != null && character.getQuest().requestsItem(item)) {
+            int amountToGive = character.getQuest().getAmountWanted(item);
 
-                //Otherwise output that the NPC does not want this item.
-                output = (character.getName() + " does not want any " + itemName + ".\n");
+            //If item successfully given to NPC output a success
+            // message and checks if a quest was finished.
+            if (player.give(item, amountToGive)) {
+                output.append("Successfully gave ").append(amountToGive).append(' ')
+                        .append(item.getStringName(amountToGive)).append(" to ").append(character.getName()).append('\n');
+                for (GameListener listener : listeners) {
+                    listener.inventoryChanged(player.getInventory());
+                }
+                if (metrics != null) {
+                    metrics.itemsMoved(amountToGive);
+                }
+                character.getQuest().removeRequestedItem(item);
+                output.append('\n');
+                checkForFinishedQuest(character.getQuest(), output);
             }
+            record(GameJournal.GIVE, character.getId(), item.getId());
         } else {
-            output = (character.getName() + " does not want any " + itemName + ".\n");
+
+            //Otherwise output that the NPC does not want this item.
+            output.append(character.getName()).append(" does not want any ").append(itemName).append(".\n");
         }
-        return output;
+        stopTimer(GameMetrics.GIVE, start);
     }
 
     /**
@@ -169,7 +373,18 @@ public class Game
      * room as the player to be shown on the GUI.
      */
     public String look() {
-        return player.getCurrentRoom().lookAround();
+        return render("look", "", this::look);
+    }
+
+    /**
+     * Look for items and characters in
+     * the same room as the player.
+     * @param output the output to append the items and characters to.
+     */
+    public void look(StringBuilder output) {
+        long start = startTimer(GameMetrics.LOOK);
+        player.getCurrentRoom().lookAround(output);
+        stopTimer(GameMetrics.LOOK, start);
     }
 
     /**
@@ -179,7 +394,31 @@ public class Game
      * @return any output message for the GUI.
      */
     public String takeItem(String itemName){
-        return player.takeItem(itemName);
+        return render("take", itemName, output -> takeItem(itemName, output));
+    }
+
+    /**
+     * Allows the player to take items
+     * from his current room.
+     * @param itemName the item to take.
+     * @param output the output to append any message to.
+     */
+    public void takeItem(String itemName, StringBuilder output){
+        long start = startTimer(GameMetrics.TAKE_ITEM);
+        int itemId = template.getItemRegistry().getId(itemName);
+        int amountBefore = (itemId == -1) ? 0 : player.getInventory().getAmount(itemId);
+        player.takeItem(itemName, output);
+        if (itemId != -1) {
+            if (metrics != null) {
+                metrics.itemsMoved(player.getInventory().getAmount(itemId) - amountBefore);
+            }
+            record(GameJournal.TAKE, itemId, 0);
+            for (GameListener listener : listeners) {
+                listener.inventoryChanged(player.getInventory());
+                listener.roomItemsChanged(player.getCurrentRoom());
+            }
+        }
+        stopTimer(GameMetrics.TAKE_ITEM, start);
     }
 
     /**
@@ -189,7 +428,16 @@ public class Game
      * be displayed on the GUI.
      */
     public String inspectItem(String itemName){
-        return player.inspectItem(itemName);
+        return render("inspect", itemName, output -> player.inspectItem(itemName, output));
+    }
+
+    /**
+     * Inspect an item in the player's inventory.
+     * @param itemName the item to inspect.
+     * @param output the output to append the item name and description to.
+     */
+    public void inspectItem(String itemName, StringBuilder output){
+        player.inspectItem(itemName, output);
     }
 
     // ------ Accessor methods ------
@@ -210,12 +458,136 @@ public class Game
         return allCharacters;
     }
 
+    /**
+     * get the seed of the game's random generator.
+     * @return the seed the game was created with.
+     */
+    public long getSeed() {
+        return random.getSeed();
+    }
+
+    /**
+     * get the template of the world the game is played in.
+     * @return the game's world template.
+     */
+    public WorldTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * get the policy answering quest requests.
+     * @return the game's prompt policy.
+     */
+    public PromptPolicy getPrompt() {
+        return prompt;
+    }
+
+    /**
+     * get the amount of turns played, which NPCs draw their moves from.
+     * @return the amount of turns played.
+     */
+    public long getTurn() {
+        return turn;
+    }
+
+    /**
+     * get the game's random generator.
+     * @return the game's random generator.
+     */
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * get all rooms in the game, each room's id being its index.
+     * @return an ArrayList of all rooms in the game.
+     */
+    public ArrayList<Room> getAllRooms() {
+        return allRooms;
+    }
+
+    /**
+     * get an item from its id.
+     * @param id the item's id.
+     * @return the item with that id.
+     */
+    public Item getItem(int id) {
+        return itemsById[id];
+    }
+
+    /**
+     * get an item from its singular or plural name.
+     * @param name the item's singular or plural name.
+     * @return the item, or null if there is no such item.
+     */
+    public Item findItem(String name) {
+        int id = template.getItemRegistry().getId(name);
+        return id == -1 ? null : itemsById[id];
+    }
+
+    /**
+     * get the amount of items in the game.
+     * @return the amount of items.
+     */
+    public int getItemCount() {
+        return itemsById.length;
+    }
+
+    /**
+     * get a quest from its id.
+     * @param id the quest's id.
+     * @return the quest with that id.
+     */
+    public Quest getQuest(int id) {
+        return questsById[id];
+    }
+
+    /**
+     * get the amount of quests in the game.
+     * @return the amount of quests.
+     */
+    public int getQuestCount() {
+        return questsById.length;
+    }
+
+    /**
+     * get the journal the game's events are recorded in.
+     * @return the game's journal, null if the game is not journaled.
+     */
+    public GameJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * get the id of the session running the game.
+     * @return the session's id, 0 if the game does not run in a GameHost.
+     */
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * get the metrics the game's commands are measured in.
+     * @return the game's metrics, null if the game is not measured.
+     */
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * get the player's inventory in a user friendly display.
      * @return the string display to be outputted on the GUI.
      */
     public String displayInventory(){
-        return player.showInventory();
+        return render("inventory", "", player::showInventory);
+    }
+
+    /**
+     * Append the player's inventory in a user friendly display to an output.
+     * @param output the output to append the display to.
+     */
+    public void displayInventory(StringBuilder output){
+        player.showInventory(output);
     }
 
     /**
@@ -223,119 +595,342 @@ public class Game
      * @return the string display to be outputted on the GUI.
      */
     public String displayActiveQuests() {
-        return player.showActiveQuests();
+        return render("quests", "", player::showActiveQuests);
+    }
+
+    /**
+     * Append the player's quests in a user friendly display to an output.
+     * @param output the output to append the display to.
+     */
+    public void displayActiveQuests(StringBuilder output) {
+        player.showActiveQuests(output);
+    }
+
+    // ------ Mutator methods ------
+
+    /**
+     * Set the journal every state-changing command is recorded in.
+     * @param journal the journal to record in, null to stop recording.
+     */
+    public void setJournal(GameJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Set the id of the session running the game, recorded
+     * with the game's Flight Recorder events.
+     * @param sessionId the session's id.
+     */
+    public void setSessionId(long sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * Set the metrics the game's commands are measured in,
+     * GameMetrics.getDefault() unless set otherwise.
+     * @param metrics the metrics to record into, null to stop measuring.
+     */
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Set the amount of turns played. Used when restoring a saved game.
+     * @param turn the amount of turns played.
+     */
+    public void setTurn(long turn) {
+        this.turn = turn;
+    }
+
+    /**
+     * Set the policy answering quest requests.
+     * @param prompt the policy answering quest requests.
+     */
+    public void setPrompt(PromptPolicy prompt) {
+        this.prompt = prompt;
+    }
+
+    /**
+     * Add a listener told about the changes made by every command.
+     * @param listener the listener to add.
+     */
+    public void addListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener added with addListener.
+     * @param listener the listener to remove.
+     */
+    public void removeListener(GameListener listener) {
+        listeners.remove(listener);
     }
 
     // ------ Miscellaneous ------
 
+    /**
+     * Notes where a command starts for Flight Recorder, if it is recording.
+     * Frontends run each command of the player between beginCommand and
+     * endCommand, so that commands are recorded whichever frontend runs them.
+     * @param command the command word, e.g. "give".
+     * @param argument the command's argument, e.g. "jake toycar".
+     * @return the command's event, to be passed to endCommand.
+     */
+    public CommandEvent beginCommand(String command, String argument) {
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        if (event.isEnabled()) {
+            event.roomId = player.getCurrentRoom().getId();
+            event.questId = questOf(command, argument);
+            event.command = command;
+            event.argument = argument;
+        }
+        return event;
+    }
+
+    /**
+     * Records a command for Flight Recorder once it has ended, if it took
+     * long enough for the recording.
+     * @param event the command's event, as returned by beginCommand.
+     */
+    public void endCommand(CommandEvent event) {
+        if (event.shouldCommit()) {
+            event.sessionId = sessionId;
+            event.commit();
+        }
+    }
+
     /**
      * Checks if the player is ready to accuse a suspect.
      * @return true/false depending on if the player started
-     * the last quest allowing him to make an accusation.
+     * the last quest allowing him to make an accusation,
+     * false if nobody can be accused in the world.
      */
     public boolean canAccuse() {
-        return (allQuests.get("wuntch1").isQuestStarted()
-                && !allQuests.get("holt0").isAccomplished());
+        if (culprit == null || accuseQuest == null) {
+            return false;
+        }
+        Quest closingQuest = finalQuest == null ? accuseQuest : finalQuest;
+        return accuseQuest.isQuestStarted() && !closingQuest.isAccomplished();
     }
 
     /**
-     * Gina guides the player to a random room.
+     * Returns the NPC the player wins the game by accusing.
+     * @return the culprit, or null if the world has none.
+     */
+    public NPC getCulprit() {
+        return culprit;
+    }
+
+    /**
+     * Gina, or the world's guiding NPC, guides the player to a random room.
      * @return any message to be outputted on the GUI.
      */
     public String letGinaGuide() {
-        String output = "";
+        return render("guide", "", this::letGinaGuide);
+    }
+
+    /**
+     * Gina, or the world's guiding NPC, guides the player to a random room.
+     * @param output the output to append any message to.
+     */
+    public void letGinaGuide(StringBuilder output) {
+
+        if (guide == null) {
+            output.append("Nobody can guide you in this world.\n");
+            return;
+        }
 
-        //Check if Gina's first quest is done allowing
+        //Check if the guide's first quest is done allowing
         // this functionality to be used by the player.
-        if (allQuests.get("gina0").isAccomplished()) {
-            if (player.getCurrentRoom().getCharacters().contains(allCharacters.get(3))) {
-                output += "Surprise! Gina has guided you to a random room.\n\n";
+        if (guideQuest == null || guideQuest.isAccomplished()) {
+            if (player.getCurrentRoom().getCharacters().contains(guide)) {
+                output.append("Surprise! ").append(guide.getName()).append(" has guided you to a random room.\n\n");
 
                 //Teleport the player to a random room.
-                output += teleportPlayer();
+                teleportPlayer(output);
+                record(GameJournal.GUIDE, 0, 0);
             } else {
-                output += "You must be in the same room as Gina to let her guide you.\n";
+                output.append("You must be in the same room as ").append(guide.getName())
+                        .append(" to be guided.\n");
             }
         } else {
-            output += "Talk to Gina after you started the investigation before you can use this command.\n" +
-                    "You can find her wandering around.\n";
+            output.append("Talk to ").append(guide.getName())
+                    .append(" after you started the investigation before you can use this command.\n")
+                    .append("You can find ").append(guide.getName()).append(" wandering around.\n");
         }
-        return output;
     }
 
     // ------ Private methods ------
 
+    /**
+     * Asks the prompt policy to accept a quest
+     * and remembers the answer for the journal.
+     * @param title the title of the request.
+     * @param message the quest request.
+     * @return true if the quest was accepted.
+     */
+    private boolean confirm(String title, String message) {
+        questAccepted = prompt.confirm(title, message);
+        return questAccepted;
+    }
+
+    /**
+     * Records an event in the game's journal, if any.
+     * @param type the type of the event.
+     * @param first the event's first argument.
+     * @param second the event's second argument.
+     */
+    private void record(byte type, int first, int second) {
+        if (journal != null) {
+            journal.record(this, type, first, second);
+        }
+    }
+
+    /**
+     * Starts timing a run of a measured command if GameMetrics.SAMPLE_INTERVAL
+     * runs of that command went by since its last timed one. Each command
+     * counts down on its own, so commands run within another one, e.g. the
+     * turn ending after a move, neither take nor skip its timed runs.
+     * @param command the command, e.g. GameMetrics.GO_ROOM.
+     * @return the time the run started at, NOT_TIMED if it is not timed.
+     */
+    private long startTimer(int command) {
+        if (--untilTimed[command] > 0) {
+            return NOT_TIMED;
+        }
+        untilTimed[command] = GameMetrics.SAMPLE_INTERVAL;
+        return metrics == null ? NOT_TIMED : System.nanoTime();
+    }
+
+    /**
+     * Counts a run of a command and records how long it took if it was timed.
+     * @param command the command, e.g. GameMetrics.GO_ROOM.
+     * @param start the time the run started at, as returned by startTimer.
+     */
+    private void stopTimer(int command, long start) {
+        if (metrics != null) {
+            metrics.countRun(command);
+            if (start != NOT_TIMED) {
+                metrics.recordLatency(command, System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Runs a command appending to an output and returns what it appended.
+     * The command is recorded like the command lines of a CommandInterpreter.
+     * @param command the command word, e.g. "give".
+     * @param argument the command's argument, e.g. "jake toycar".
+     * @param body the command to run.
+     * @return the output of the command.
+     */
+    private String render(String command, String argument, Consumer<StringBuilder> body) {
+        CommandEvent event = beginCommand(command, argument);
+        StringBuilder output = new StringBuilder();
+        body.accept(output);
+        endCommand(event);
+        return output.toString();
+    }
+
+    /**
+     * Returns the quest of the NPC a command talks or gives to.
+     * @param command the command word.
+     * @param argument the command's argument.
+     * @return the id of the NPC's quest, or -1 if there is none.
+     */
+    private int questOf(String command, String argument) {
+        String characterName = argument;
+        if (command.equals("give")) {
+            int space = argument.indexOf(' ');
+            characterName = (space == -1) ? "" : argument.substring(0, space);
+        } else if (!command.equals("talk")) {
+            return -1;
+        }
+        NPC character = player.getCurrentRoom().characterInRoom(characterName);
+        return (character == null || character.getQuest() == null) ? -1 : character.getQuest().getId();
+    }
+
     /**
      * Teleports the player to a random room.
-     * @return any message to be outputted on the GUI.
+     * @param output the output to append any message to.
      */
-    private String teleportPlayer() {
-        Random random = new Random();
+    private void teleportPlayer(StringBuilder output) {
+        long start = startTimer(GameMetrics.TELEPORT_PLAYER);
         int roomIndex;
 
         //Avoid teleporting the player to the teleporter room.
-        while ((roomIndex = random.nextInt(allRooms.size())) == 9) {
+        while (roomsById[roomIndex = random.nextInt(roomsById.length)] == teleporterRoom) {
             continue;
         }
 
-        player.changeRoom(allRooms.get(roomIndex));
-        String output = checkForRoomQuest();
+        int previousRoom = player.getCurrentRoom().getId();
+        player.changeRoom(roomsById[roomIndex]);
+        TeleportEvent event = new TeleportEvent();
+        if (event.isEnabled()) {
+            event.sessionId = sessionId;
+            event.roomId = previousRoom;
+            event.nextRoomId = roomIndex;
+            event.commit();
+        }
+        roomChanged();
+        checkForRoomQuest(output);
         nextTurn();
-        return output;
+        stopTimer(GameMetrics.TELEPORT_PLAYER, start);
     }
 
     /**
      * Checks if a given quest is accomplished by the player.
      * @param quest the quest to check.
-     * @return Any message to be outputted on the GUI
-     * including completion messages and potential rewards.
+     * @param output the output to append any message to,
+     *               including completion messages and potential rewards.
      */
-    private String checkForFinishedQuest(Quest quest) {
-        String output = "";
+    private void checkForFinishedQuest(Quest quest, StringBuilder output) {
 
         //Check if all tasks for th quest have been done
         if (quest.getTasksLeft() == 0) {
-            output = quest.finishQuest();
+            quest.finishQuest(output);
+            if (metrics != null) {
+                metrics.questCompleted();
+            }
+            questChanged(quest, QuestEvent.FINISHED);
 
             //Check for item rewards
-            String itemRewards = quest.getItemReward();
-            if (itemRewards != "") {
-                for (String reward : itemRewards.split("/")) {
-                    String itemName = reward.split(" ")[0];
-                    Item item = allItems.get(itemName);
-                    int amount = Integer.parseInt(reward.split(" ")[1]);
-                    output += "\n" + player.addItemToInv(item, amount);
+            for (int i = 0; i < quest.getRewardCount(); i++) {
+                output.append('\n');
+                player.addItemToInv(quest.getRewardItem(i), quest.getRewardAmount(i), output);
+            }
+            if (quest.getRewardCount() > 0) {
+                for (GameListener listener : listeners) {
+                    listener.inventoryChanged(player.getInventory());
                 }
             }
 
             //Unlock next quests
-            String nextQuests = quest.getNextQuests();
-            if (nextQuests != "") {
-                for (String questName : nextQuests.split("/")) {
-                    allQuests.get(questName).initiateQuest();
-                }
+            for (int i = 0; i < questGraph.getFinishUnlockCount(quest.getId()); i++) {
+                initiateQuest(questsById[questGraph.getFinishUnlock(quest.getId(), i)]);
             }
             player.removeActiveQuest(quest);
+            for (GameListener listener : listeners) {
+                listener.questsChanged(player);
+            }
         }
-        return output;
     }
 
     /**
      * Check if there is a quest attached
      * to the player's current room.
-     * @return Any message to be outputted on the GUI
-     * including completion messages and potential rewards.
+     * @param output the output to append any message to,
+     *               including completion messages and potential rewards.
      */
-    private String checkForRoomQuest() {
-        String output = "";
-        Room room = player.getCurrentRoom();
-        if (player.getQuestRooms().keySet().contains(room)) {
-            Quest quest = player.getQuestRooms().get(room);
+    private void checkForRoomQuest(StringBuilder output) {
+        int room = player.getCurrentRoom().getId();
+        int questId;
+        while ((questId = player.getRoomTriggers().take(room)) != -1) {
+            Quest quest = questsById[questId];
             quest.taskDone();
-            player.getQuestRooms().remove(room, quest);
-            output += checkForFinishedQuest(quest);
+            checkForFinishedQuest(quest, output);
         }
-        return output;
     }
 
     /**
@@ -343,8 +938,77 @@ public class Game
      * that need to be called at the end of each turn.
      */
     private void nextTurn() {
-        for (NPC character : allCharacters) {
-            character.changeRoom();
+        long start = startTimer(GameMetrics.NEXT_TURN);
+        simulation.advance(turn++);
+        if (metrics != null && simulation.getMoveCount() > 0) {
+            metrics.npcsMoved(simulation.getMoveCount());
+        }
+
+        //Record the moves for Flight Recorder if it is recording them
+        NpcMoveEvent event = new NpcMoveEvent();
+        for (int i = 0; i < simulation.getMoveCount() && event.isEnabled(); i++) {
+            NPC character = simulation.getMovedCharacter(i);
+            event.sessionId = sessionId;
+            event.characterId = character.getId();
+            event.roomId = simulation.getPreviousRoom(i);
+            event.nextRoomId = character.getCurrentRoom().getId();
+            event.questId = (character.getQuest() == null) ? -1 : character.getQuest().getId();
+            event.commit();
+            event = new NpcMoveEvent();
+        }
+
+        //Tell listeners about NPCs walking in or out of the player's room
+        if (!listeners.isEmpty()) {
+            Room playerRoom = player.getCurrentRoom();
+            for (int i = 0; i < simulation.getMoveCount(); i++) {
+                NPC character = simulation.getMovedCharacter(i);
+                if (simulation.getPreviousRoom(i) == playerRoom.getId()) {
+                    for (GameListener listener : listeners) {
+                        listener.characterLeft(character, playerRoom);
+                    }
+                } else if (character.getCurrentRoom() == playerRoom) {
+                    for (GameListener listener : listeners) {
+                        listener.characterEntered(character, playerRoom);
+                    }
+                }
+            }
+        }
+        stopTimer(GameMetrics.NEXT_TURN, start);
+    }
+
+    /**
+     * Initiates a quest, unlocking it once every quest it
+     * waits for has been started or finished.
+     * @param quest the quest to initiate.
+     */
+    private void initiateQuest(Quest quest) {
+        if (quest.initiateQuest()) {
+            questChanged(quest, QuestEvent.UNLOCKED);
+        }
+    }
+
+    /**
+     * Records a change of a quest's state for Flight Recorder, if it is recording.
+     * @param quest the quest which changed.
+     * @param transition what happened to the quest, e.g. QuestEvent.STARTED.
+     */
+    private void questChanged(Quest quest, String transition) {
+        QuestEvent event = new QuestEvent();
+        if (event.isEnabled()) {
+            event.sessionId = sessionId;
+            event.roomId = player.getCurrentRoom().getId();
+            event.questId = quest.getId();
+            event.transition = transition;
+            event.commit();
+        }
+    }
+
+    /**
+     * Tells listeners the player has entered another room.
+     */
+    private void roomChanged() {
+        for (GameListener listener : listeners) {
+            listener.roomChanged(player.getCurrentRoom());
         }
     }
 
@@ -357,7 +1021,15 @@ public class Game
      * displayed to the user.
      */
     public String gameWon() {
-        String output = "";
+        return render("accuse", culprit == null ? "" : culprit.getName(), this::gameWon);
+    }
+
+    /**
+     * Called when the game is won. Completes the final
+     * quests and allows all NPCs to finally move.
+     * @param output the output to append the game completion messages to.
+     */
+    public void gameWon(StringBuilder output) {
 
         //Make all characters able to move.
         for (NPC character : allCharacters) {
@@ -365,11 +1037,19 @@ public class Game
         }
 
         //Returns the final quest completion dialogues.
-        allQuests.get("wuntch1").taskDone();
-        allQuests.get("holt0").taskDone();
-        output += checkForFinishedQuest(allQuests.get("wuntch1"));
-        output += checkForFinishedQuest(allQuests.get("holt0"));
-        return output;
+        if (accuseQuest != null) {
+            accuseQuest.taskDone();
+        }
+        if (finalQuest != null) {
+            finalQuest.taskDone();
+        }
+        if (accuseQuest != null) {
+            checkForFinishedQuest(accuseQuest, output);
+        }
+        if (finalQuest != null) {
+            checkForFinishedQuest(finalQuest, output);
+        }
+        record(GameJournal.WON, 0, 0);
     }
 
     /**
@@ -378,9 +1058,7 @@ public class Game
      * to be shown to the user.
      */
     public String gameOver() {
-        String output = "";
-        output += ("Unfortunately you have accused the wrong person and because of you an innocent man went to jail.\nYour unforgivable mistake means you can not partake in the case anymore.\nHopefully your friends will still be found.\n");
-        output += ("\nGoodbye and thank you for playing.\n(You will be exited from the game once you close this window)");
-        return output;
+        return "Unfortunately you have accused the wrong person and because of you an innocent man went to jail.\nYour unforgivable mistake means you can not partake in the case anymore.\nHopefully your friends will still be found.\n"
+                + "\nGoodbye and thank you for playing.\n(You will be exited from the game once you close this window)";
     }
 }
\ No newline at end of file
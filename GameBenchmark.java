@@ -0,0 +1,302 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * The GameBenchmark class measures the cost of the game's commands so
+ * that changes to the engine can be compared against a baseline.
+ *
+ * Every command path is measured against the standard world and against
+ * a larger synthetic world (see SyntheticSetup). For each of them the
+ * throughput, the latency percentiles and the amount of memory allocated
+ * per call are printed. Setting up the state needed by a call (e.g. putting
+ * hotdogs back in the street before taking them) is not measured.
+ *
+ * Usage: java GameBenchmark [-warmup n] [-iterations n] [-rooms n] [-npcs n] [-only name]
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class GameBenchmark {
+    private int warmup;
+    private int iterations;
+    private String only;
+    private long sink; // consumes results so that the JIT can not remove the measured calls.
+    private com.sun.management.ThreadMXBean threads;
+
+    /**
+     * A single call to measure.
+     */
+    private interface Operation {
+        Object run();
+    }
+
+    /**
+     * Creates a benchmark.
+     * @param warmup the amount of unmeasured calls made before measuring.
+     * @param iterations the amount of measured calls.
+     * @param only only run benchmarks containing this name, or null to run all.
+     */
+    public GameBenchmark(int warmup, int iterations, String only) {
+        this.warmup = warmup;
+        this.iterations = iterations;
+        this.only = only;
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * Runs all benchmarks.
+     * @param args the benchmark options.
+     */
+    public static void main(String[] args) {
+        int warmup = 20000;
+        int iterations = 100000;
+        int rooms = 1000;
+        int characters = 1000;
+        String only = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "-iterations":
+                    iterations = Integer.parseInt(args[++i]);
+                    break;
+                case "-rooms":
+                    rooms = Integer.parseInt(args[++i]);
+                    break;
+                case "-npcs":
+                    characters = Integer.parseInt(args[++i]);
+                    break;
+                case "-only":
+                    only = args[++i];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        GameBenchmark benchmark = new GameBenchmark(warmup, iterations, only);
+        System.out.printf("%-22s %-24s %12s %9s %9s %9s %9s %10s %10s%n",
+                "world", "benchmark", "ops/s", "p50 ns", "p90 ns", "p99 ns", "p99.9 ns", "max ns", "B/op");
+        benchmark.runAll("stock", GameSetup::new);
+        WorldTemplate synthetic = SyntheticSetup.createTemplate(rooms, characters, 42);
+        benchmark.runAll("synthetic " + rooms + "x" + characters, () -> new GameSetup(synthetic));
+    }
+
+    /**
+     * Runs every benchmark against a given world.
+     * @param world the name of the world.
+     * @param setups creates a new copy of the world for each benchmark.
+     */
+    public void runAll(String world, Supplier<GameSetup> setups) {
+        //Commands write to a reused output, as frontends streaming it would
+        StringBuilder output = new StringBuilder();
+
+        GameSetup setup = setups.get();
+        Game game = startInBullpen(setup);
+        String[] direction = new String[1];
+        measure(world, "Game.goRoom", () -> {
+            direction[0] = game.getPlayer().getCurrentRoom() == bullpen(setup) ? "kitchen" : "bullpen";
+            output.setLength(0);
+            return null;
+        }, () -> {
+            game.goRoom(direction[0], output);
+            return output;
+        });
+
+        GameSetup backSetup = setups.get();
+        Game backGame = startInBullpen(backSetup);
+        Room kitchen = bullpen(backSetup).getExit("kitchen");
+        measure(world, "Game.previousRoom", () -> {
+            backGame.getPlayer().changeRoom(kitchen);
+            output.setLength(0);
+            return null;
+        }, () -> {
+            backGame.previousRoom(output);
+            return output;
+        });
+
+        Game talkGame = startInBullpen(setups.get());
+        measure(world, "Game.interact", () -> {
+            output.setLength(0);
+            talkGame.interact("charles", output);
+            return output;
+        });
+
+        Game giveGame = startInBullpen(setups.get());
+        measure(world, "Game.give", () -> {
+            output.setLength(0);
+            giveGame.give("jake", "toycar", output);
+            return output;
+        });
+
+        GameSetup takeSetup = setups.get();
+        Game takeGame = new Game(takeSetup, PromptPolicy.ALWAYS_DECLINE);
+        Item hotdog = takeSetup.getAllItems().get("hotdog");
+        Room street = takeGame.getPlayer().getCurrentRoom();
+        measure(world, "Game.takeItem", () -> {
+            takeGame.getPlayer().give(hotdog, takeGame.getPlayer().getInventory().getAmount(hotdog.getId()));
+            street.addItem(hotdog, 6);
+            output.setLength(0);
+            return null;
+        }, () -> {
+            takeGame.takeItem("hotdog", output);
+            return output;
+        });
+
+        Game lookGame = startInBullpen(setups.get());
+        measure(world, "Game.look", () -> {
+            output.setLength(0);
+            lookGame.look(output);
+            return output;
+        });
+
+        GameSetup displaySetup = setups.get();
+        Game displayGame = startInBullpen(displaySetup);
+        Player player = displayGame.getPlayer();
+        for (Item item : displaySetup.getAllItems().values()) {
+            player.addItemToInv(item, 1, output);
+        }
+        for (Quest quest : displaySetup.getAllQuests().values()) {
+            player.addActiveQuest(quest);
+        }
+        measure(world, "Player.showInventory", () -> {
+            output.setLength(0);
+            player.showInventory(output);
+            return output;
+        });
+        measure(world, "Player.showActiveQuests", () -> {
+            output.setLength(0);
+            player.showActiveQuests(output);
+            return output;
+        });
+
+        GameSetup roomSetup = setups.get();
+        Room room = bullpen(roomSetup);
+        measure(world, "Room.lookAround", () -> {
+            output.setLength(0);
+            room.lookAround(output);
+            return output;
+        });
+
+        //Routes between random rooms, as asked by travel commands
+        RoomRoutes routes = roomSetup.getTemplate().getRoomRoutes();
+        RoomRoutes.Search search = new RoomRoutes.Search();
+        GameRandom random = new GameRandom(42);
+        int[] route = new int[2];
+        measure(world, "RoomRoutes.findRoute", () -> {
+            route[0] = random.nextInt(routes.getRoomCount());
+            route[1] = random.nextInt(routes.getRoomCount());
+            return null;
+        }, () -> {
+            return routes.findRoute(route[0], route[1], search);
+        });
+    }
+
+    // ------ measurement: ------
+
+    /**
+     * Measures an operation which does not need any setup.
+     * @param world the name of the world.
+     * @param name the name of the benchmark.
+     * @param operation the operation to measure.
+     */
+    private void measure(String world, String name, Operation operation) {
+        measure(world, name, () -> null, operation);
+    }
+
+    /**
+     * Measures an operation and prints the results.
+     * @param world the name of the world.
+     * @param name the name of the benchmark.
+     * @param setup run before each call, without being measured.
+     * @param operation the operation to measure.
+     */
+    private void measure(String world, String name, Operation setup, Operation operation) {
+        if (only != null && !name.contains(only)) {
+            return;
+        }
+        for (int i = 0; i < warmup; i++) {
+            consume(setup.run());
+            consume(operation.run());
+        }
+
+        //Latencies
+        long[] latencies = new long[iterations];
+        long total = 0;
+        for (int i = 0; i < iterations; i++) {
+            consume(setup.run());
+            long start = System.nanoTime();
+            Object result = operation.run();
+            latencies[i] = System.nanoTime() - start;
+            total += latencies[i];
+            consume(result);
+        }
+        Arrays.sort(latencies);
+
+        //Allocations, corrected for the cost of the measurement itself
+        long thread = Thread.currentThread().getId();
+        long overhead = threads.getThreadAllocatedBytes(thread);
+        overhead = threads.getThreadAllocatedBytes(thread) - overhead;
+        long allocated = 0;
+        for (int i = 0; i < iterations; i++) {
+            consume(setup.run());
+            long before = threads.getThreadAllocatedBytes(thread);
+            Object result = operation.run();
+            allocated += threads.getThreadAllocatedBytes(thread) - before - overhead;
+            consume(result);
+        }
+
+        System.out.printf("%-22s %-24s %12.0f %9d %9d %9d %9d %10d %10d%n",
+                world, name, iterations * 1e9 / Math.max(total, 1),
+                percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), percentile(latencies, 0.999),
+                latencies[latencies.length - 1], Math.max(allocated / iterations, 0));
+    }
+
+    /**
+     * Returns a percentile of sorted latencies.
+     * @param sorted the sorted latencies.
+     * @param percentile the percentile between 0 and 1.
+     * @return the latency at that percentile.
+     */
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Consumes the result of a call.
+     * @param result the result to consume.
+     */
+    private void consume(Object result) {
+        if (result != null) {
+            sink += result.hashCode();
+        }
+    }
+
+    // ------ world helpers: ------
+
+    /**
+     * Creates a game which declines every quest with the player in the bullpen.
+     * @param setup the world of the game.
+     * @return the game.
+     */
+    private static Game startInBullpen(GameSetup setup) {
+        Game game = new Game(setup, PromptPolicy.ALWAYS_DECLINE);
+        game.getPlayer().changeRoom(bullpen(setup));
+        return game;
+    }
+
+    /**
+     * Returns the bullpen of a world.
+     * @param setup the world.
+     * @return the bullpen.
+     */
+    private static Room bullpen(GameSetup setup) {
+        return setup.getAllRooms().get(1);
+    }
+}
@@ -0,0 +1,279 @@
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The GameHost class runs many independent game sessions in a single JVM,
+ * as an alternative to the one player started by GUI.start.
+ *
+ * Sessions are created, sent commands and closed through the host.
+ * Each running session is confined to its own thread: a virtual thread
+ * when the Java runtime supports them, a daemon platform thread otherwise.
+ * At most maxRunningSessions sessions run at once; sessions created beyond
+ * that limit wait, commands included, until a running session is closed.
+ *
+ * Once journaling is enabled, every new session records its game in its own
+ * journal directory, all journals being written by one shared JournalWriter.
+ * restoreSession continues such a game, e.g. after the previous host crashed.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class GameHost {
+    private int maxRunningSessions;
+    private int runningSessions;
+    private ThreadFactory threadFactory;
+    private PromptPolicy prompt;
+    private Path journalDirectory;
+    private int snapshotInterval;
+    private JournalWriter journalWriter;
+    private AtomicLong nextSessionId;
+    private Map<Long, GameSession> sessions;
+    private Queue<GameSession> waitingSessions;
+    private boolean shutdown;
+
+    /**
+     * Creates a host accepting every quest on behalf of its players.
+     * @param maxRunningSessions the maximum amount of sessions running at once.
+     */
+    public GameHost(int maxRunningSessions) {
+        this(maxRunningSessions, PromptPolicy.ALWAYS_ACCEPT, defaultThreadFactory());
+    }
+
+    /**
+     * Creates a host.
+     * @param maxRunningSessions the maximum amount of sessions running at once.
+     * @param prompt the policy answering quest requests in every session.
+     * @param threadFactory creates the thread of each running session.
+     */
+    public GameHost(int maxRunningSessions, PromptPolicy prompt, ThreadFactory threadFactory) {
+        if (maxRunningSessions <= 0) {
+            throw new IllegalArgumentException("At least one session must be allowed to run.");
+        }
+        this.maxRunningSessions = maxRunningSessions;
+        this.prompt = prompt;
+        this.threadFactory = threadFactory;
+        nextSessionId = new AtomicLong();
+        sessions = new ConcurrentHashMap<>();
+        waitingSessions = new ArrayDeque<>();
+    }
+
+    // ------ accessor methods: ------
+
+    /**
+     * Returns a session given its id.
+     * @param id the session's id.
+     * @return the session, or null if there is no open session with that id.
+     */
+    public GameSession getSession(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Returns all sessions which have not stopped yet.
+     * @return all sessions which have not stopped yet.
+     */
+    public Collection<GameSession> getSessions() {
+        return sessions.values();
+    }
+
+    /**
+     * Returns the amount of sessions currently running.
+     * @return the amount of sessions currently running.
+     */
+    public synchronized int getRunningSessionCount() {
+        return runningSessions;
+    }
+
+    /**
+     * Returns the amount of sessions waiting to run.
+     * @return the amount of sessions waiting to run.
+     */
+    public synchronized int getWaitingSessionCount() {
+        return waitingSessions.size();
+    }
+
+    /**
+     * Returns the writer shared by the journals of every session.
+     * @return the journal writer, or null if journaling is not enabled.
+     */
+    synchronized JournalWriter getJournalWriter() {
+        return journalWriter;
+    }
+
+    /**
+     * Returns the amount of events between two snapshots of a journal.
+     * @return the snapshot interval.
+     */
+    synchronized int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    // ------ journaling: ------
+
+    /**
+     * Journals the games of every session created from now on. Each game
+     * gets its own uniquely named directory inside the given one, so that
+     * sessions sharing a seed, e.g. replays, never share a journal. The seed
+     * itself is recorded in the journal's log.
+     * @param directory the directory containing the journals.
+     * @param snapshotInterval the amount of events between snapshots, 0 for none.
+     */
+    public synchronized void enableJournaling(Path directory, int snapshotInterval) {
+        if (snapshotInterval < 0) {
+            throw new IllegalArgumentException("The snapshot interval can not be negative.");
+        }
+        journalDirectory = directory;
+        this.snapshotInterval = snapshotInterval;
+        if (journalWriter == null) {
+            journalWriter = new JournalWriter();
+        }
+    }
+
+    /**
+     * Creates a session continuing a journaled game. The game is restored
+     * from its journal once the session runs and keeps being journaled there.
+     * @param journal the directory of the game's journal.
+     * @return the new session.
+     */
+    public synchronized GameSession restoreSession(Path journal) {
+        if (journalWriter == null) {
+            throw new IllegalStateException("Journaling must be enabled to restore a session.");
+        }
+        return addSession(new GameSession(nextSessionId.incrementAndGet(), 0, prompt, journal, true, this));
+    }
+
+    // ------ session management: ------
+
+    /**
+     * Creates a new session with its own game.
+     * @return the new session.
+     */
+    public GameSession createSession() {
+        return createSession(GameRandom.newSeed());
+    }
+
+    /**
+     * Creates a new session with its own game, using a given random seed
+     * so that a previous session can be reproduced exactly.
+     * @param seed the seed of the session's game.
+     * @return the new session.
+     */
+    public GameSession createSession(long seed) {
+        Path journal = null;
+        synchronized (this) {
+            if (journalDirectory != null) {
+                journal = journalDirectory.resolve("game-" + UUID.randomUUID());
+            }
+        }
+        return addSession(new GameSession(nextSessionId.incrementAndGet(), seed, prompt, journal, false, this));
+    }
+
+    /**
+     * Closes a session given its id.
+     * @param id the session's id.
+     */
+    public void closeSession(long id) {
+        GameSession session = sessions.get(id);
+        if (session != null) {
+            session.close();
+        }
+    }
+
+    /**
+     * Closes every session and stops accepting new ones.
+     * Sessions still waiting to run are dropped along with their commands.
+     */
+    public void shutdown() {
+        ArrayList<GameSession> dropped;
+        synchronized (this) {
+            shutdown = true;
+            dropped = new ArrayList<>(waitingSessions);
+            waitingSessions.clear();
+        }
+        for (GameSession session : dropped) {
+            sessions.remove(session.getId());
+            session.abandon();
+        }
+        for (GameSession session : sessions.values()) {
+            session.close();
+        }
+    }
+
+    /**
+     * Called by a session's thread once the session has stopped.
+     * @param session the stopped session.
+     */
+    synchronized void sessionStopped(GameSession session) {
+        sessions.remove(session.getId());
+        runningSessions--;
+        startWaitingSessions();
+        notifyAll();
+    }
+
+    /**
+     * Waits until no session is running or waiting anymore.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public synchronized void awaitIdle() throws InterruptedException {
+        while (runningSessions > 0 || !waitingSessions.isEmpty()) {
+            wait();
+        }
+    }
+
+    // ------ private methods: ------
+
+    /**
+     * Registers a new session and starts it if the running limit allows it.
+     * @param session the new session.
+     * @return the session.
+     */
+    private synchronized GameSession addSession(GameSession session) {
+        if (shutdown) {
+            throw new IllegalStateException("The host has been shut down.");
+        }
+        sessions.put(session.getId(), session);
+        waitingSessions.add(session);
+        startWaitingSessions();
+        return session;
+    }
+
+    /**
+     * Starts waiting sessions as long as the running limit allows it.
+     */
+    private synchronized void startWaitingSessions() {
+        while (runningSessions < maxRunningSessions && !waitingSessions.isEmpty()) {
+            GameSession session = waitingSessions.poll();
+            Thread thread = threadFactory.newThread(session);
+            thread.setName("game-session-" + session.getId());
+            runningSessions++;
+            thread.start();
+        }
+    }
+
+    /**
+     * Returns a factory creating virtual threads if the Java runtime
+     * supports them, and daemon platform threads otherwise.
+     * @return the thread factory.
+     */
+    private static ThreadFactory defaultThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return runnable -> {
+                Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+}
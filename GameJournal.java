@@ -0,0 +1,492 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * The GameJournal class records every state-changing command of a game
+ * in an append-only file, so that the game can be recovered after its
+ * session crashed or was moved to another host.
+ *
+ * A journal is a directory holding a "journal.log" file and snapshots.
+ * The log starts with a header containing the game's random seed and is
+ * followed by fixed-size events: one byte for the type of the event and
+ * two ints for its arguments (room, character or item ids and the answer
+ * to a quest request). Every so many events a snapshot of the whole game
+ * state is written next to the log, so that recovering only replays the
+ * events recorded after the latest snapshot.
+ *
+ * Events are recorded in memory by the game's thread and written to disk
+ * by a JournalWriter, which batches the events of all its journals and
+ * forces each file once per batch.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class GameJournal {
+    public static final byte GO = 1;
+    public static final byte BACK = 2;
+    public static final byte TALK = 3;
+    public static final byte GIVE = 4;
+    public static final byte TAKE = 5;
+    public static final byte GUIDE = 6;
+    public static final byte WON = 7;
+
+    private static final String LOG_FILE = "journal.log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int LOG_MAGIC = 0x424d4a4c;
+    private static final int SNAPSHOT_MAGIC = 0x424d5353;
+    private static final short VERSION = 4;
+    private static final int HEADER_SIZE = 4 + 2 + 8;
+    private static final int EVENT_SIZE = 1 + 4 + 4;
+
+    private Path directory;
+    private FileChannel log;
+    private JournalWriter writer;
+    private int snapshotInterval;
+
+    //Guarded by this: filled by the game's thread, emptied by the writer
+    private ByteBuffer pending;
+    private long recordedEvents;
+    private byte[] pendingSnapshot;
+    private long pendingSnapshotEvents;
+    private boolean scheduled;
+    private long durableEvents;
+    private IOException failure;
+    private boolean closed;
+
+    //Only used by the writer's thread
+    private ByteBuffer writing;
+    private byte[] writingSnapshot;
+    private long writingSnapshotEvents;
+    private long writtenEvents;
+
+    /**
+     * Opens a journal whose log is already positioned after its last event.
+     * @param directory the journal's directory.
+     * @param log the journal's log file.
+     * @param writer the writer writing the journal to disk.
+     * @param snapshotInterval the amount of events between snapshots, 0 for none.
+     * @param events the amount of events already in the log.
+     */
+    private GameJournal(Path directory, FileChannel log, JournalWriter writer, int snapshotInterval, long events) {
+        this.directory = directory;
+        this.log = log;
+        this.writer = writer;
+        this.snapshotInterval = snapshotInterval;
+        pending = ByteBuffer.allocate(64 * EVENT_SIZE);
+        writing = ByteBuffer.allocate(64 * EVENT_SIZE);
+        recordedEvents = events;
+        durableEvents = events;
+        writtenEvents = events;
+    }
+
+    /**
+     * Creates a new journal for a game which has not been played yet.
+     * @param directory the directory of the journal, created if needed.
+     * @param game the game to record.
+     * @param writer the writer writing the journal to disk.
+     * @param snapshotInterval the amount of events between snapshots, 0 for none.
+     * @return the journal, already recording the game.
+     * @throws IOException if the journal could not be created or already exists.
+     */
+    public static GameJournal create(Path directory, Game game, JournalWriter writer, int snapshotInterval)
+            throws IOException {
+        Files.createDirectories(directory);
+        FileChannel log = FileChannel.open(directory.resolve(LOG_FILE),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(LOG_MAGIC).putShort(VERSION).putLong(game.getSeed()).flip();
+            while (header.hasRemaining()) {
+                log.write(header);
+            }
+            log.force(true);
+        } catch (IOException e) {
+            log.close();
+            throw e;
+        }
+        GameJournal journal = new GameJournal(directory, log, writer, snapshotInterval, 0);
+        game.setJournal(journal);
+        return journal;
+    }
+
+    /**
+     * Recovers a journaled game: the latest valid snapshot is restored and
+     * the events recorded after it are replayed. An event which was only
+     * partially written when the game stopped is discarded.
+     * @param directory the directory of the journal.
+     * @param setup the components of a game set up from the journaled game's world.
+     * @param prompt the policy answering quest requests once the game is recovered.
+     * @param writer the writer writing the journal to disk.
+     * @param snapshotInterval the amount of events between snapshots, 0 for none.
+     * @return the recovered game, recording in the journal again.
+     * @throws IOException if the journal could not be read.
+     */
+    public static Game recover(Path directory, GameSetup setup, PromptPolicy prompt, JournalWriter writer,
+                               int snapshotInterval) throws IOException {
+        FileChannel log = FileChannel.open(directory.resolve(LOG_FILE),
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(log, header, 0);
+            if (header.getInt() != LOG_MAGIC || header.getShort() != VERSION) {
+                throw new IOException("Not a game journal: " + directory);
+            }
+            Game game = new Game(setup, prompt, header.getLong());
+
+            //Ignore a trailing event which was not completely written
+            long events = (log.size() - HEADER_SIZE) / EVENT_SIZE;
+            long replayFrom = restoreLatestSnapshot(directory, game, events);
+            replay(log, game, replayFrom, events);
+            game.setPrompt(prompt);
+
+            long end = HEADER_SIZE + events * EVENT_SIZE;
+            log.truncate(end);
+            log.position(end);
+            game.setJournal(new GameJournal(directory, log, writer, snapshotInterval, events));
+            return game;
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+    }
+
+    // ------ recording: ------
+
+    /**
+     * Records an event. Called by the game after each state-changing command.
+     * @param game the game the event happened in.
+     * @param type the type of the event.
+     * @param first the event's first argument.
+     * @param second the event's second argument.
+     */
+    void record(Game game, byte type, int first, int second) {
+        long events;
+        boolean schedule;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("The journal is closed.");
+            }
+            if (pending.remaining() < EVENT_SIZE) {
+                ByteBuffer larger = ByteBuffer.allocate(pending.capacity() * 2);
+                pending.flip();
+                pending = larger.put(pending);
+            }
+            pending.put(type).putInt(first).putInt(second);
+            recordedEvents++;
+            events = recordedEvents;
+            schedule = !scheduled;
+            scheduled = true;
+        }
+
+        //Capture snapshots on the game's thread, the only one allowed to read the game
+        if (snapshotInterval > 0 && events % snapshotInterval == 0) {
+            byte[] snapshot = GameState.capture(game);
+            synchronized (this) {
+                pendingSnapshot = snapshot;
+                pendingSnapshotEvents = events;
+            }
+        }
+        if (schedule) {
+            writer.schedule(this);
+        }
+    }
+
+    /**
+     * Waits until all recorded events have been forced to disk.
+     * @throws IOException if the journal could not be written.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public synchronized void sync() throws IOException, InterruptedException {
+        while (durableEvents < recordedEvents && failure == null) {
+            wait();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Waits until all recorded events are on disk and closes the journal.
+     * @throws IOException if the journal could not be written or closed.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void close() throws IOException, InterruptedException {
+        try {
+            sync();
+        } finally {
+            synchronized (this) {
+                closed = true;
+            }
+            log.close();
+        }
+    }
+
+    /**
+     * Returns the amount of events recorded so far.
+     * @return the amount of recorded events.
+     */
+    public synchronized long getRecordedEvents() {
+        return recordedEvents;
+    }
+
+    /**
+     * Returns the amount of events known to be on disk.
+     * @return the amount of durable events.
+     */
+    public synchronized long getDurableEvents() {
+        return durableEvents;
+    }
+
+    // ------ writing, called by the JournalWriter: ------
+
+    /**
+     * Writes the events recorded since the last call, without forcing them to disk.
+     * @return true if there is something to force.
+     */
+    boolean writePending() {
+        synchronized (this) {
+            scheduled = false;
+            if (failure != null || closed) {
+                return false;
+            }
+            ByteBuffer swap = writing;
+            writing = pending;
+            pending = swap;
+            pending.clear();
+            writtenEvents = recordedEvents;
+            writingSnapshot = pendingSnapshot;
+            writingSnapshotEvents = pendingSnapshotEvents;
+            pendingSnapshot = null;
+        }
+        try {
+            writing.flip();
+            while (writing.hasRemaining()) {
+                log.write(writing);
+            }
+            return true;
+        } catch (IOException e) {
+            fail(e);
+            return false;
+        }
+    }
+
+    /**
+     * Forces the written events to disk and then writes the pending snapshot,
+     * so that a snapshot never refers to events which are not durable.
+     */
+    void forceWritten() {
+        try {
+            log.force(false);
+            if (writingSnapshot != null) {
+                writeSnapshot(writingSnapshotEvents, writingSnapshot);
+                writingSnapshot = null;
+            }
+            synchronized (this) {
+                durableEvents = writtenEvents;
+                notifyAll();
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Marks the journal as failed and wakes up the threads waiting for it.
+     * @param e the cause of the failure.
+     */
+    synchronized void fail(IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+        notifyAll();
+    }
+
+    // ------ snapshots: ------
+
+    /**
+     * Writes a snapshot atomically and deletes the older ones.
+     * @param events the amount of events the snapshot includes.
+     * @param state the game state after these events.
+     */
+    private void writeSnapshot(long events, byte[] state) throws IOException {
+        CRC32 checksum = new CRC32();
+        checksum.update(state);
+        ByteBuffer snapshot = ByteBuffer.allocate(4 + 2 + 8 + 4 + state.length + 8);
+        snapshot.putInt(SNAPSHOT_MAGIC).putShort(VERSION).putLong(events).putInt(state.length)
+                .put(state).putLong(checksum.getValue()).flip();
+
+        //Write to a temporary file first so that a snapshot is never seen half written
+        Path temporary = directory.resolve(SNAPSHOT_PREFIX + events + ".tmp");
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (snapshot.hasRemaining()) {
+                file.write(snapshot);
+            }
+            file.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_PREFIX + events + SNAPSHOT_SUFFIX),
+                StandardCopyOption.ATOMIC_MOVE);
+
+        for (Map.Entry<Long, Path> older : listSnapshots(directory).entrySet()) {
+            if (older.getKey() < events) {
+                Files.deleteIfExists(older.getValue());
+            }
+        }
+    }
+
+    /**
+     * Restores the latest snapshot which is valid and not ahead of the log.
+     * @param directory the directory of the journal.
+     * @param game the game to restore the snapshot into.
+     * @param events the amount of events in the log.
+     * @return the amount of events included in the restored snapshot, 0 if none was restored.
+     */
+    private static long restoreLatestSnapshot(Path directory, Game game, long events) throws IOException {
+        for (Map.Entry<Long, Path> snapshot : listSnapshots(directory).descendingMap().entrySet()) {
+            if (snapshot.getKey() > events) {
+                continue;
+            }
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(snapshot.getValue()));
+            try {
+                if (in.getInt() != SNAPSHOT_MAGIC || in.getShort() != VERSION
+                        || in.getLong() != snapshot.getKey()) {
+                    continue;
+                }
+                byte[] state = new byte[in.getInt()];
+                in.get(state);
+                CRC32 checksum = new CRC32();
+                checksum.update(state);
+                if (in.getLong() != checksum.getValue()) {
+                    continue;
+                }
+                GameState.restore(game, ByteBuffer.wrap(state));
+                return snapshot.getKey();
+            } catch (RuntimeException e) {
+                //A damaged snapshot: fall back to an older one
+                continue;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Lists the snapshots of a journal.
+     * @param directory the directory of the journal.
+     * @return the snapshot files, sorted by the amount of events they include.
+     */
+    private static TreeMap<Long, Path> listSnapshots(Path directory) throws IOException {
+        TreeMap<Long, Path> snapshots = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    snapshots.put(Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(),
+                            name.length() - SNAPSHOT_SUFFIX.length())), file);
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    // ------ replaying: ------
+
+    /**
+     * Replays the events of the log between two positions.
+     * @param log the journal's log file.
+     * @param game the game to replay the events in.
+     * @param from the first event to replay.
+     * @param to the event to stop at (excluded).
+     */
+    private static void replay(FileChannel log, Game game, long from, long to) throws IOException {
+        ByteBuffer events = ByteBuffer.allocate(1024 * EVENT_SIZE);
+        long position = HEADER_SIZE + from * EVENT_SIZE;
+        long end = HEADER_SIZE + to * EVENT_SIZE;
+        StringBuilder output = new StringBuilder();
+        while (position < end) {
+            events.clear();
+            events.limit((int) Math.min(events.capacity(), end - position));
+            readFully(log, events, position);
+            position += events.limit();
+            while (events.hasRemaining()) {
+                output.setLength(0);
+                apply(game, events.get(), events.getInt(), events.getInt(), output);
+            }
+        }
+    }
+
+    /**
+     * Replays a single event by calling the command which recorded it.
+     * @param game the game to replay the event in.
+     * @param type the type of the event.
+     * @param first the event's first argument.
+     * @param second the event's second argument.
+     * @param output receives the output of the command, which is not shown.
+     */
+    private static void apply(Game game, byte type, int first, int second, StringBuilder output) throws IOException {
+        Player player = game.getPlayer();
+        switch (type) {
+            case GO:
+                Room target = game.getAllRooms().get(first);
+                for (Map.Entry<String, Room> exit : player.getCurrentRoom().getAllExits().entrySet()) {
+                    if (exit.getValue() == target) {
+                        game.goRoom(exit.getKey(), output);
+                        return;
+                    }
+                }
+                throw new IOException("Journal moves to a room which is not an exit: " + target.getName());
+            case BACK:
+                game.previousRoom(output);
+                return;
+            case TALK:
+                game.setPrompt(second == 1 ? PromptPolicy.ALWAYS_ACCEPT : PromptPolicy.ALWAYS_DECLINE);
+                game.interact(game.getAllCharacters().get(first).getLowerCaseName(), output);
+                return;
+            case GIVE:
+                game.give(game.getAllCharacters().get(first).getLowerCaseName(),
+                        game.getItem(second).getName(), output);
+                return;
+            case TAKE:
+                game.takeItem(game.getItem(first).getName(), output);
+                return;
+            case GUIDE:
+                game.letGinaGuide(output);
+                return;
+            case WON:
+                game.gameWon(output);
+                return;
+            default:
+                throw new IOException("Unknown journal event: " + type);
+        }
+    }
+
+    /**
+     * Reads from a position of a file until the buffer is full.
+     * @param file the file to read.
+     * @param buffer the buffer to fill.
+     * @param position the position to read from.
+     */
+    private static void readFully(FileChannel file, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = file.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of journal.");
+            }
+            position += read;
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * A GameListener is told what changed in a game after each command,
+ * so that a display can update only what is affected instead of
+ * redrawing everything.
+ *
+ * Every method does nothing by default; listeners only override the
+ * changes they display. Listeners are called on the thread running
+ * the game's commands, while the command is still running.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public interface GameListener {
+
+    /**
+     * Called when the player enters another room.
+     * @param room the room the player is now in.
+     */
+    default void roomChanged(Room room) {
+    }
+
+    /**
+     * Called when items are taken from the player's room.
+     * @param room the player's room.
+     */
+    default void roomItemsChanged(Room room) {
+    }
+
+    /**
+     * Called when items are added to or removed from the player's inventory.
+     * @param inventory the player's inventory.
+     */
+    default void inventoryChanged(Inventory inventory) {
+    }
+
+    /**
+     * Called when the player accepts or finishes a quest.
+     * @param player the player, holding the active quests.
+     */
+    default void questsChanged(Player player) {
+    }
+
+    /**
+     * Called when an NPC walks into the player's room.
+     * @param character the NPC.
+     * @param room the player's room.
+     */
+    default void characterEntered(NPC character, Room room) {
+    }
+
+    /**
+     * Called when an NPC walks out of the player's room.
+     * @param character the NPC.
+     * @param room the player's room.
+     */
+    default void characterLeft(NPC character, Room room) {
+    }
+
+    /**
+     * Called when the player becomes able to accuse a suspect.
+     */
+    default void accuseUnlocked() {
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * The GameMetricsMXBean interface is what monitoring tools (jconsole,
+ * JMX exporters...) see of the GameMetrics of a running game server, under
+ * the name GameMetrics.OBJECT_NAME.
+ *
+ * Latencies are in nanoseconds. Every run of a command is counted, but
+ * only one in GameMetrics.SAMPLE_INTERVAL runs is timed: the mean, the
+ * percentiles and the max of a command are of those samples.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public interface GameMetricsMXBean {
+
+    /**
+     * @return the latencies of moving to an adjacent room.
+     */
+    CommandLatency getGoRoomLatency();
+
+    /**
+     * @return the latencies of talking to NPCs.
+     */
+    CommandLatency getInteractLatency();
+
+    /**
+     * @return the latencies of giving items to NPCs.
+     */
+    CommandLatency getGiveLatency();
+
+    /**
+     * @return the latencies of taking items.
+     */
+    CommandLatency getTakeItemLatency();
+
+    /**
+     * @return the latencies of looking around.
+     */
+    CommandLatency getLookLatency();
+
+    /**
+     * @return the latencies of teleporting the player.
+     */
+    CommandLatency getTeleportPlayerLatency();
+
+    /**
+     * @return the latencies of ending a turn, NPC moves included.
+     */
+    CommandLatency getNextTurnLatency();
+
+    /**
+     * @return how many quests players accepted.
+     */
+    long getQuestsStarted();
+
+    /**
+     * @return how many quests players finished.
+     */
+    long getQuestsCompleted();
+
+    /**
+     * @return how many items players took from rooms or gave to NPCs.
+     */
+    long getItemsMoved();
+
+    /**
+     * @return how many times NPCs changed rooms.
+     */
+    long getNpcMoves();
+
+    /**
+     * Sets every latency and counter back to zero.
+     */
+    void reset();
+}
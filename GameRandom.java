@@ -0,0 +1,133 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The GameRandom class is the source of randomness of a single game,
+ * e.g. for NPCs wandering around or for teleporting the player.
+ *
+ * It is a small SplitMix64 generator: it is seeded once, never allocates
+ * when producing numbers and can be split into independent generators.
+ * The same seed and the same commands therefore always replay the same game.
+ * A generator must only be used by one thread at a time.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class GameRandom {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final AtomicLong seedUniquifier = new AtomicLong(System.nanoTime());
+
+    private long seed;
+    private long state;
+
+    /**
+     * Creates a generator from a given seed.
+     * @param seed the seed of the generator.
+     */
+    public GameRandom(long seed) {
+        this.seed = seed;
+        state = seed;
+    }
+
+    /**
+     * Returns a new seed, different for each call.
+     * @return a new seed.
+     */
+    public static long newSeed() {
+        return mix64(seedUniquifier.addAndGet(GOLDEN_GAMMA) ^ System.nanoTime());
+    }
+
+    // ------ accessor methods: ------
+
+    /**
+     * Returns the seed the generator was created with.
+     * @return the generator's seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the current state of the generator, which
+     * can be restored later through setState.
+     * @return the generator's state.
+     */
+    public long getState() {
+        return state;
+    }
+
+    // ------ mutator methods: ------
+
+    /**
+     * Restores a state previously returned by getState.
+     * @param state the state to restore.
+     */
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    /**
+     * Sets the state to one derived from a seed, a turn and a key, e.g. an
+     * NPC's id. Every turn and key gives an independent stream of numbers,
+     * so streams give the same numbers whatever order they are used in.
+     * @param seed the seed, e.g. the game's.
+     * @param turn the turn.
+     * @param key the key.
+     */
+    public void reseed(long seed, long turn, int key) {
+        state = mix64(mix64(seed + turn * GOLDEN_GAMMA) ^ key);
+    }
+
+    // ------ random numbers: ------
+
+    /**
+     * Returns a random long.
+     * @return a random long.
+     */
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    /**
+     * Returns a random int between 0 (included) and bound (excluded).
+     * @param bound the upper bound, which must be positive.
+     * @return a random int between 0 and bound.
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        int r = (int) (nextLong() >>> 33);
+        int m = bound - 1;
+
+        //Powers of two only need the highest bits, other bounds reject the values causing a bias
+        if ((bound & m) == 0) {
+            return (int) ((bound * (long) r) >> 31);
+        }
+        for (int u = r; u - (r = u % bound) + m < 0; u = (int) (nextLong() >>> 33)) {
+            continue;
+        }
+        return r;
+    }
+
+    /**
+     * Creates a new generator, independent from this one,
+     * whose seed is taken from this generator.
+     * @return the new generator.
+     */
+    public GameRandom split() {
+        return new GameRandom(nextLong());
+    }
+
+    /**
+     * Scrambles the bits of a long.
+     * @param z the long to scramble.
+     * @return the scrambled long.
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
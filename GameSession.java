@@ -0,0 +1,286 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A GameSession is one independent game run by a GameHost.
+ *
+ * Commands are sent to the session's mailbox and executed one after the
+ * other by the session's own thread, which is the only thread ever touching
+ * the session's game. Each command's output is returned through a future.
+ *
+ * The game itself is only created once the host starts running the session,
+ * so sessions waiting for their turn take very little memory.
+ * When the host journals its games, every state-changing command is
+ * recorded in the session's journal directory, from which the game can
+ * be restored by another host after this one crashed.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class GameSession implements Runnable {
+    private long id;
+    private long seed;
+    private PromptPolicy prompt;
+    private Path journalDirectory;
+    private boolean restored;
+    private GameHost host;
+    private BlockingQueue<Message> mailbox;
+    private volatile boolean closed;
+    private volatile boolean stopped;
+    private int commandsExecuted;
+    private volatile Exception failure;
+
+    /**
+     * A batch of commands waiting in the mailbox.
+     * An empty batch tells the session to stop.
+     */
+    private static class Message {
+        private List<String> commands;
+        private CompletableFuture<List<String>> result;
+
+        private Message(List<String> commands, CompletableFuture<List<String>> result) {
+            this.commands = commands;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Creates a session. Sessions are created through GameHost.createSession.
+     * @param id the session's id.
+     * @param seed the seed of the session's game.
+     * @param prompt the policy answering quest requests.
+     * @param journalDirectory the directory of the session's journal, null if not journaled.
+     * @param restored true to restore the game from the journal instead of starting a new one.
+     * @param host the host running the session.
+     */
+    GameSession(long id, long seed, PromptPolicy prompt, Path journalDirectory, boolean restored, GameHost host) {
+        this.id = id;
+        this.seed = seed;
+        this.prompt = prompt;
+        this.journalDirectory = journalDirectory;
+        this.restored = restored;
+        this.host = host;
+        mailbox = new LinkedBlockingQueue<>();
+    }
+
+    // ------ accessor methods: ------
+
+    /**
+     * Returns the session's id.
+     * @return the session's id.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the seed of the session's game. Replaying the same
+     * commands in a session with the same seed gives the same results.
+     * The seed of a restored session is only known once it runs.
+     * @return the seed of the session's game.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the directory of the session's journal.
+     * @return the journal's directory, or null if the session is not journaled.
+     */
+    public Path getJournalDirectory() {
+        return journalDirectory;
+    }
+
+    /**
+     * Returns whether or not the session was closed.
+     * @return whether or not the session was closed.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns why the session stopped by itself, e.g. because its
+     * journal could not be created or written.
+     * @return the error which stopped the session, or null if it did not fail.
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    /**
+     * Returns the amount of commands the session has executed.
+     * Only meaningful once the session has stopped.
+     * @return the amount of commands executed.
+     */
+    public int getCommandsExecuted() {
+        return commandsExecuted;
+    }
+
+    // ------ session commands: ------
+
+    /**
+     * Sends a command to the session.
+     * @param command the command, e.g. "talk jake".
+     * @return the future output of the command.
+     */
+    public CompletableFuture<String> submit(String command) {
+        List<String> commands = new ArrayList<>(1);
+        commands.add(command);
+        return submitAll(commands).thenApply(outputs -> outputs.get(0));
+    }
+
+    /**
+     * Sends a script of commands to the session. The commands
+     * are executed one after the other without interruption.
+     * @param commands the commands to execute.
+     * @return the future outputs of the commands.
+     */
+    public CompletableFuture<List<String>> submitAll(List<String> commands) {
+        CompletableFuture<List<String>> result = new CompletableFuture<>();
+        if (closed) {
+            result.completeExceptionally(closedError());
+        } else if (commands.isEmpty()) {
+            result.complete(new ArrayList<>());
+        } else {
+            mailbox.add(new Message(commands, result));
+
+            //The session may have stopped while the message was being added
+            if (stopped) {
+                failPendingMessages();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Closes the session. Commands already sent are still executed,
+     * after which the session's thread stops.
+     */
+    public void close() {
+        if (!closed) {
+            closed = true;
+            mailbox.add(new Message(new ArrayList<>(), null));
+        }
+    }
+
+    /**
+     * Stops a session which never started running,
+     * failing every command sent to it.
+     */
+    void abandon() {
+        closed = true;
+        stopped = true;
+        failPendingMessages();
+    }
+
+    // ------ session thread: ------
+
+    /**
+     * Runs the session: creates its game and executes the
+     * commands sent to it until the session is closed.
+     */
+    @Override
+    public void run() {
+        Game game = null;
+        try {
+            game = openGame();
+            CommandInterpreter interpreter = new CommandInterpreter(game);
+            StringBuilder output = new StringBuilder();
+            Message message;
+            while (!(message = mailbox.take()).commands.isEmpty()) {
+                List<String> outputs = new ArrayList<>(message.commands.size());
+                try {
+                    for (String command : message.commands) {
+                        output.setLength(0);
+                        interpreter.execute(command, output);
+                        outputs.add(output.toString());
+                        commandsExecuted++;
+                    }
+                    message.result.complete(outputs);
+                } catch (RuntimeException e) {
+                    //A broken command only fails its own batch, not the session
+                    message.result.completeExceptionally(e);
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeJournal(game);
+            closed = true;
+            stopped = true;
+            failPendingMessages();
+            host.sessionStopped(this);
+        }
+    }
+
+    /**
+     * Creates the session's game, restoring it from its journal if needed.
+     * @return the session's game.
+     * @throws IOException if the journal could not be created or read.
+     */
+    private Game openGame() throws IOException {
+        if (restored) {
+            Game game = GameJournal.recover(journalDirectory, new GameSetup(), prompt,
+                    host.getJournalWriter(), host.getSnapshotInterval());
+            seed = game.getSeed();
+            game.setSessionId(id);
+            return game;
+        }
+        Game game = new Game(new GameSetup(), prompt, seed);
+        game.setSessionId(id);
+        if (journalDirectory != null) {
+            GameJournal.create(journalDirectory, game, host.getJournalWriter(), host.getSnapshotInterval());
+        }
+        return game;
+    }
+
+    /**
+     * Waits for the game's journal to be on disk and closes it.
+     * @param game the session's game, null if it could not be created.
+     */
+    private void closeJournal(Game game) {
+        if (game == null || game.getJournal() == null) {
+            return;
+        }
+        try {
+            game.getJournal().close();
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fails any command still waiting once the session has stopped.
+     */
+    private void failPendingMessages() {
+        Message message;
+        while ((message = mailbox.poll()) != null) {
+            if (message.result != null) {
+                message.result.completeExceptionally(closedError());
+            }
+        }
+    }
+
+    /**
+     * Creates the error failing a command sent to the closed session,
+     * telling why the session stopped if it failed.
+     * @return the error.
+     */
+    private IllegalStateException closedError() {
+        if (failure == null) {
+            return new IllegalStateException("Session " + id + " is closed.");
+        }
+        return new IllegalStateException("Session " + id + " failed: " + failure, failure);
+    }
+}
@@ -0,0 +1,219 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The GameState class captures everything that can change while playing
+ * a game and restores it later, e.g. from a snapshot of a journaled game.
+ *
+ * Only the state is stored: the player's position, path, inventory and
+ * quests, what is in every room, where every
+ * NPC is and the progress of every quest, plus the random generator
+ * and the turn NPCs draw their moves from.
+ * Rooms, items, NPCs and quests are referred to by their id, so a state
+ * can only be restored into a game set up from the same world template.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class GameState {
+
+    /**
+     * Captures the state of a game.
+     * @param game the game to capture.
+     * @return the captured state.
+     */
+    public static byte[] capture(Game game) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeLong(game.getRandom().getState());
+            out.writeLong(game.getTurn());
+            writePlayer(out, game.getPlayer());
+
+            for (Room room : game.getAllRooms()) {
+                out.writeInt(room.getItemCount());
+                for (int i = 0; i < room.getItemCount(); i++) {
+                    out.writeInt(room.getItem(i).getId());
+                    out.writeInt(room.getItemAmountAt(i));
+                }
+                out.writeInt(room.getCharacters().size());
+                for (NPC character : room.getCharacters()) {
+                    out.writeInt(character.getId());
+                }
+            }
+
+            for (NPC character : game.getAllCharacters()) {
+                out.writeInt(character.getQuest() == null ? -1 : character.getQuest().getId());
+                out.writeBoolean(character.canMove());
+            }
+
+            for (int id = 0; id < game.getQuestCount(); id++) {
+                Quest quest = game.getQuest(id);
+                out.writeBoolean(quest.isQuestStarted());
+                out.writeBoolean(quest.isAccomplished());
+                out.writeInt(quest.getTasksLeft());
+                out.writeInt(quest.getUnlockCounter());
+                writeAmounts(out, quest.getRequestedItems());
+            }
+            out.flush();
+        } catch (IOException e) {
+            //Writing to memory can not fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Restores a captured state into a game set up from the same world.
+     * @param game the game to restore the state into.
+     * @param in the captured state.
+     * @throws IllegalArgumentException if the state does not match the game's world.
+     */
+    public static void restore(Game game, ByteBuffer in) {
+        try {
+            game.getRandom().setState(in.getLong());
+            game.setTurn(in.getLong());
+            readPlayer(in, game);
+
+            for (Room room : game.getAllRooms()) {
+                room.removeAllItems();
+                int itemCount = in.getInt();
+                for (int i = 0; i < itemCount; i++) {
+                    room.addItem(game.getItem(checkId(in.getInt(), game.getItemCount())), in.getInt());
+                }
+                room.removeAllCharacters();
+                int characterCount = in.getInt();
+                for (int i = 0; i < characterCount; i++) {
+                    NPC character = game.getAllCharacters().get(checkId(in.getInt(), game.getAllCharacters().size()));
+                    room.addCharacter(character);
+                    character.setCurrentRoom(room);
+                }
+            }
+
+            for (NPC character : game.getAllCharacters()) {
+                int quest = in.getInt();
+                character.setQuest(quest == -1 ? null : game.getQuest(checkId(quest, game.getQuestCount())));
+                character.setCanMove(in.get() != 0);
+            }
+
+            for (int id = 0; id < game.getQuestCount(); id++) {
+                Quest quest = game.getQuest(id);
+                quest.setQuestStarted(in.get() != 0);
+                quest.setAccomplished(in.get() != 0);
+                quest.setTasksLeft(in.getInt());
+                quest.setUnlockCounter(in.getInt());
+                readItemAmounts(in, game, quest.getRequestedItems());
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated game state.", e);
+        }
+    }
+
+    // ------ player: ------
+
+    private static void writePlayer(DataOutputStream out, Player player) throws IOException {
+        out.writeInt(player.getCurrentRoom().getId());
+        writeIds(out, player.getPreviousRooms());
+        Inventory inventory = player.getInventory();
+        out.writeInt(inventory.size());
+        for (int slot = 0; slot < inventory.size(); slot++) {
+            out.writeInt(inventory.getItemId(slot));
+            out.writeInt(inventory.getAmountAt(slot));
+        }
+        out.writeInt(player.getActiveQuests().size());
+        for (Quest quest : player.getActiveQuests()) {
+            out.writeInt(quest.getId());
+        }
+        RoomTriggers triggers = player.getRoomTriggers();
+        out.writeInt(triggers.size());
+        for (int i = 0; i < triggers.size(); i++) {
+            out.writeInt(triggers.getRoom(i));
+            out.writeInt(triggers.getQuest(i));
+        }
+    }
+
+    private static void readPlayer(ByteBuffer in, Game game) {
+        Player player = game.getPlayer();
+        ArrayList<Room> rooms = game.getAllRooms();
+        player.setCurrentRoom(rooms.get(checkId(in.getInt(), rooms.size())));
+
+        player.getPreviousRooms().clear();
+        int previousCount = in.getInt();
+        for (int i = 0; i < previousCount; i++) {
+            player.getPreviousRooms().add(rooms.get(checkId(in.getInt(), rooms.size())));
+        }
+
+        player.getInventory().clear();
+        int inventoryCount = in.getInt();
+        for (int i = 0; i < inventoryCount; i++) {
+            int item = checkId(in.getInt(), game.getItemCount());
+            if (!player.getInventory().add(item, in.getInt())) {
+                throw new IllegalArgumentException("Game state holds more items than the inventory can.");
+            }
+        }
+
+        player.getActiveQuests().clear();
+        int questCount = in.getInt();
+        for (int i = 0; i < questCount; i++) {
+            player.getActiveQuests().add(game.getQuest(checkId(in.getInt(), game.getQuestCount())));
+        }
+
+        player.getRoomTriggers().clear();
+        int triggerCount = in.getInt();
+        for (int i = 0; i < triggerCount; i++) {
+            int room = checkId(in.getInt(), rooms.size());
+            player.getRoomTriggers().add(room, checkId(in.getInt(), game.getQuestCount()));
+        }
+    }
+
+    // ------ helpers: ------
+
+    private static void writeIds(DataOutputStream out, ArrayList<Room> rooms) throws IOException {
+        out.writeInt(rooms.size());
+        for (Room room : rooms) {
+            out.writeInt(room.getId());
+        }
+    }
+
+    private static void writeAmounts(DataOutputStream out, HashMap<Item, Integer> amounts) throws IOException {
+        //Sort by id so that equal states are always captured identically
+        TreeMap<Integer, Integer> sorted = new TreeMap<>();
+        for (Map.Entry<Item, Integer> amount : amounts.entrySet()) {
+            sorted.put(amount.getKey().getId(), amount.getValue());
+        }
+        writePairs(out, sorted);
+    }
+
+    private static void writePairs(DataOutputStream out, TreeMap<Integer, Integer> pairs) throws IOException {
+        out.writeInt(pairs.size());
+        for (Map.Entry<Integer, Integer> pair : pairs.entrySet()) {
+            out.writeInt(pair.getKey());
+            out.writeInt(pair.getValue());
+        }
+    }
+
+    private static void readItemAmounts(ByteBuffer in, Game game, HashMap<Item, Integer> amounts) {
+        amounts.clear();
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            Item item = game.getItem(checkId(in.getInt(), game.getItemCount()));
+            amounts.put(item, in.getInt());
+        }
+    }
+
+    private static int checkId(int id, int count) {
+        if (id < 0 || id >= count) {
+            throw new IllegalArgumentException("Game state refers to an unknown id: " + id);
+        }
+        return id;
+    }
+}
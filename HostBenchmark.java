@@ -0,0 +1,88 @@
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The HostBenchmark class measures how many sessions and commands per
+ * second a GameHost can process. For each amount of sessions, every
+ * session plays the same script once and is then closed.
+ *
+ * Usage: java HostBenchmark [-script file] [-running n] [sessions...]
+ *
+ *     -script file  the script each session plays (default walkthrough.script).
+ *     -running n    the maximum amount of sessions running at once (default 10000).
+ *     sessions      the amounts of sessions to measure (default 1000 10000 100000).
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class HostBenchmark {
+
+    /**
+     * Runs the benchmark.
+     * @param args the benchmark options.
+     */
+    public static void main(String[] args) throws Exception {
+        String script = "walkthrough.script";
+        int maxRunning = 10000;
+        List<Integer> sessionCounts = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-script":
+                    script = args[++i];
+                    break;
+                case "-running":
+                    maxRunning = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    sessionCounts.add(Integer.parseInt(args[i]));
+            }
+        }
+        if (sessionCounts.isEmpty()) {
+            sessionCounts.add(1000);
+            sessionCounts.add(10000);
+            sessionCounts.add(100000);
+        }
+        List<String> commands = Files.readAllLines(Paths.get(script), StandardCharsets.UTF_8);
+
+        //Warm up the engine before measuring
+        run(1000, maxRunning, commands);
+
+        System.out.printf("%10s %10s %12s %14s %14s%n", "sessions", "ms", "sessions/s", "commands", "commands/s");
+        for (int sessionCount : sessionCounts) {
+            long start = System.nanoTime();
+            long executed = run(sessionCount, maxRunning, commands);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%10d %10d %12.0f %14d %14.0f%n", sessionCount, elapsed / 1000000,
+                    sessionCount * 1e9 / elapsed, executed, executed * 1e9 / elapsed);
+        }
+    }
+
+    /**
+     * Creates sessions which each play the script once.
+     * @param sessionCount the amount of sessions to create.
+     * @param maxRunning the maximum amount of sessions running at once.
+     * @param commands the script to play.
+     * @return the amount of commands executed by all sessions.
+     */
+    private static long run(int sessionCount, int maxRunning, List<String> commands) throws Exception {
+        GameHost host = new GameHost(maxRunning);
+        List<CompletableFuture<List<String>>> results = new ArrayList<>(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            GameSession session = host.createSession();
+            results.add(session.submitAll(commands));
+            session.close();
+        }
+        long executed = 0;
+        for (CompletableFuture<List<String>> result : results) {
+            executed += result.get().size();
+        }
+        host.awaitIdle();
+        host.shutdown();
+        return executed;
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * The Inventory class holds the items carried by one player.
+ *
+ * An inventory has a fixed amount of slots, each holding a stack of one
+ * item: the item's id and how many of it are carried. Slots are kept in
+ * the order items were first added, in two int arrays, so adding, removing
+ * and counting items never allocates. Items themselves carry no amounts,
+ * so any number of players can hold the same item independently.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class Inventory {
+    private int[] itemIds;
+    private int[] amounts;
+    private int size;
+
+    /**
+     * Creates an empty inventory.
+     * @param slots the maximum amount of different items the inventory can hold.
+     */
+    public Inventory(int slots) {
+        itemIds = new int[slots];
+        amounts = new int[slots];
+    }
+
+    // ------ accessor methods: ------
+
+    /**
+     * Returns the amount of different items in the inventory.
+     * @return the amount of used slots.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum amount of different items the inventory can hold.
+     * @return the amount of slots.
+     */
+    public int getSlotCount() {
+        return itemIds.length;
+    }
+
+    /**
+     * Returns whether or not every slot is used.
+     * @return whether or not the inventory is full.
+     */
+    public boolean isFull() {
+        return size == itemIds.length;
+    }
+
+    /**
+     * Returns the id of the item in a slot.
+     * @param slot the slot, from 0 to size() - 1.
+     * @return the id of the item in that slot.
+     */
+    public int getItemId(int slot) {
+        return itemIds[slot];
+    }
+
+    /**
+     * Returns the amount of the item in a slot.
+     * @param slot the slot, from 0 to size() - 1.
+     * @return the amount of the item in that slot.
+     */
+    public int getAmountAt(int slot) {
+        return amounts[slot];
+    }
+
+    /**
+     * Returns how many of an item the inventory holds.
+     * @param itemId the item's id.
+     * @return the amount held, 0 if the item is not in the inventory.
+     */
+    public int getAmount(int itemId) {
+        int slot = slotOf(itemId);
+        return slot == -1 ? 0 : amounts[slot];
+    }
+
+    /**
+     * Returns whether or not the inventory holds an item.
+     * @param itemId the item's id.
+     * @return whether or not the item is in the inventory.
+     */
+    public boolean contains(int itemId) {
+        return slotOf(itemId) != -1;
+    }
+
+    // ------ mutator methods: ------
+
+    /**
+     * Adds an amount of an item, using a new slot if the item is not held yet.
+     * @param itemId the item's id.
+     * @param amount the amount to add.
+     * @return false if the item needed a new slot and the inventory is full.
+     */
+    public boolean add(int itemId, int amount) {
+        int slot = slotOf(itemId);
+        if (slot == -1) {
+            if (isFull()) {
+                return false;
+            }
+            slot = size++;
+            itemIds[slot] = itemId;
+            amounts[slot] = 0;
+        }
+        amounts[slot] += amount;
+        return true;
+    }
+
+    /**
+     * Removes an amount of an item, freeing its slot once none is left.
+     * @param itemId the item's id.
+     * @param amount the amount to remove.
+     * @return false if the inventory does not hold that many of the item.
+     */
+    public boolean remove(int itemId, int amount) {
+        int slot = slotOf(itemId);
+        if (slot == -1 || amounts[slot] < amount) {
+            return false;
+        }
+        amounts[slot] -= amount;
+        if (amounts[slot] == 0) {
+
+            //Keep the other slots in the order they were added
+            System.arraycopy(itemIds, slot + 1, itemIds, slot, size - slot - 1);
+            System.arraycopy(amounts, slot + 1, amounts, slot, size - slot - 1);
+            size--;
+        }
+        return true;
+    }
+
+    /**
+     * Removes every item from the inventory.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    // ------ private methods: ------
+
+    /**
+     * Finds the slot holding an item.
+     * @param itemId the item's id.
+     * @return the slot, or -1 if the item is not in the inventory.
+     */
+    private int slotOf(int itemId) {
+        for (int slot = 0; slot < size; slot++) {
+            if (itemIds[slot] == itemId) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+}
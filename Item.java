@@ -1,8 +1,9 @@
 /**
  * This class creates items for the Brooklyn Murder GUI based game.
  *
- * Items have a weight and an amount which
- * can range between 0 and their weight.
+ * Items have a weight: the maximum amount of them a player can carry.
+ * How many of an item a player or a room holds is stored by the
+ * player's Inventory or the room, so items never change once created.
  *
  * A boolean determines whether or not they
  * cn be picked up by players.
@@ -12,47 +13,47 @@
  */
 
 public class Item {
+    private int id;
     private String name;
     private String pluralName;
     private String description;
-    private int currentAmount;
     private int maxAmount;
-    private int extraAmount; // used to store amount of items that don't fit on the stack when adding amounts to the object.
     private boolean pickable;
 
     /**
      * Creates an item object that can be picked up by players or given to NPCs.
+     * @param id the item's id in its world.
      * @param name the name of the object.
      * @param pluralName the plural form of the object's name.
      * @param description the description of the item.
-     * @param currentAmount the items amount.
      * @param maxAmount the item's max amount or weight.
+     * @param pickable whether or not the item can be picked up.
      */
-    public Item(String name, String pluralName, String description, int currentAmount, int maxAmount){
+    public Item(int id, String name, String pluralName, String description, int maxAmount, boolean pickable){
+        this.id = id;
         this.name = name;
         this.pluralName = pluralName;
         this.description = description;
-        this.currentAmount = currentAmount;
         this.maxAmount = maxAmount;
-        pickable = true;
+        this.pickable = pickable;
     }
 
     /**
-     * Returns the amount of items in the stack followed by the item's name.
-     * @return Item amount + item name
+     * Returns the item's name.
+     * @return the item's name.
      */
     public String toString(){
-        return currentAmount + " " + this.getStringName(currentAmount);
+        return name;
     }
 
     // ------ accessor methods: ------
 
     /**
-     * Returns amount of leftovers when an amount is added to this item.
-     * @return amount of leftovers when an amount is added to this item.
+     * Returns the item's id in its world.
+     * @return the item's id.
      */
-    public int getExtraAmount(){
-        return extraAmount;
+    public int getId() {
+        return id;
     }
 
     /**
@@ -85,14 +86,6 @@ public class Item {
         return pluralName;
     }
 
-    /**
-     * Returns current amount of a specified item.
-     * @Return Amount of the item.
-     */
-    public int getAmount(){
-        return currentAmount;
-    }
-
     /**
      * Returns the item's weight.
      * @return the item's weight.
@@ -116,47 +109,4 @@ public class Item {
     public boolean isPickable() {
         return pickable;
     }
-
-    // ------ mutator methods: ------
-
-    /**
-     * Sets whether or not an item should be pickable.
-     * @param pickable Boolean to set.
-     */
-    public void setPickable(boolean pickable) {
-        this.pickable = pickable;
-    }
-
-    // ------ item mechanics: ------
-
-    /**
-     * Add an amount to this item object.
-     * @param amountToAdd the amount to add.
-     * @return any message to display on the GUI.
-     */
-    public String take(int amountToAdd){
-
-        //Checks whether current amount is already reached
-        //or will be surpassed and acts accordingly
-        if (currentAmount == maxAmount) {
-            return ("You can not store any more "+pluralName+" in your inventory.\n");
-        } else if ((currentAmount + amountToAdd) > maxAmount){
-            extraAmount = amountToAdd + currentAmount - maxAmount;
-            int amountAdded = maxAmount-currentAmount;
-            currentAmount += amountAdded;
-            return (amountAdded + " " + getStringName(amountAdded)+" was added to your inventory.\n"+"You can not store any more "+pluralName+" in your inventory.\n");
-        } else {
-            currentAmount += amountToAdd;
-            extraAmount = 0;
-            return (amountToAdd + " " + getStringName(amountToAdd)+" was added to your inventory.\n");
-        }
-    }
-
-    /**
-     * Remove a certain amount from the item's current amount.
-     * @param amountToRemove amount to remove.
-     */
-    public void remove(int amountToRemove){
-        currentAmount -= amountToRemove;
-    }
 }
@@ -0,0 +1,64 @@
+import java.util.HashMap;
+
+/**
+ * The ItemRegistry class resolves item names to item ids.
+ *
+ * Every item of a world has a dense id, from 0 to the amount of items
+ * minus one. The registry maps both the singular and the plural name of
+ * every item to that id, so that commands typed by players are resolved
+ * with one lookup and everything else works with ids. A registry belongs
+ * to a WorldTemplate and is shared by every game played in that world.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class ItemRegistry {
+    private HashMap<String, Integer> ids;
+    private String[] names;
+
+    /**
+     * Creates the registry of a world's items.
+     * @param items the definitions of the items, each at the index of its id.
+     */
+    public ItemRegistry(WorldTemplate.ItemDefinition[] items) {
+        ids = new HashMap<>(items.length * 4);
+        names = new String[items.length];
+        for (WorldTemplate.ItemDefinition item : items) {
+            names[item.getId()] = item.getName();
+            ids.putIfAbsent(item.getName(), item.getId());
+        }
+
+        //Singular names win over plural ones shared with another item
+        for (WorldTemplate.ItemDefinition item : items) {
+            ids.putIfAbsent(item.getPluralName(), item.getId());
+        }
+    }
+
+    /**
+     * Returns the id of an item given its singular or plural name.
+     * @param name the item's singular or plural name.
+     * @return the item's id, or -1 if there is no such item.
+     */
+    public int getId(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the singular name of an item given its id.
+     * @param id the item's id.
+     * @return the item's name.
+     */
+    public String getName(int id) {
+        return names[id];
+    }
+
+    /**
+     * Returns the amount of items in the registry.
+     * @return the amount of items.
+     */
+    public int size() {
+        return names.length;
+    }
+}
@@ -0,0 +1,105 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
+/**
+ * The JournalWriter class writes game journals to disk on its own thread.
+ *
+ * Games record their events in memory and carry on, while the writer
+ * groups the commits: each round it takes every journal with new events,
+ * writes all of them and only then forces them to disk. The more events
+ * arrive while the disk is busy, the larger the next round becomes, so
+ * forcing files never has to keep up with the amount of commands played.
+ * One writer is meant to be shared by all the games of a host.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class JournalWriter {
+    private LinkedHashSet<GameJournal> scheduled;
+    private boolean closed;
+    private Thread thread;
+    private long rounds;
+
+    /**
+     * Creates a writer and starts its thread.
+     */
+    public JournalWriter() {
+        scheduled = new LinkedHashSet<>();
+        thread = new Thread(this::writeJournals, "journal-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Schedules a journal with new events to be written in the next round.
+     * @param journal the journal to write.
+     */
+    synchronized void schedule(GameJournal journal) {
+        if (closed) {
+            journal.fail(new IOException("The journal writer is closed."));
+            return;
+        }
+        scheduled.add(journal);
+        notifyAll();
+    }
+
+    /**
+     * Returns the amount of rounds written so far, each
+     * round forcing every journal in it to disk once.
+     * @return the amount of rounds written.
+     */
+    public synchronized long getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Writes the scheduled journals and stops the writer's thread.
+     * @throws InterruptedException if interrupted while waiting for the thread.
+     */
+    public void close() throws InterruptedException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        thread.join();
+    }
+
+    /**
+     * Writes rounds of journals until the writer is closed.
+     */
+    private void writeJournals() {
+        ArrayList<GameJournal> round = new ArrayList<>();
+        ArrayList<GameJournal> written = new ArrayList<>();
+        while (true) {
+            synchronized (this) {
+                while (scheduled.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                if (scheduled.isEmpty()) {
+                    return;
+                }
+                round.addAll(scheduled);
+                scheduled.clear();
+                rounds++;
+            }
+
+            //Write every journal before forcing any, so that the disk sees one batch
+            for (GameJournal journal : round) {
+                if (journal.writePending()) {
+                    written.add(journal);
+                }
+            }
+            for (GameJournal journal : written) {
+                journal.forceWritten();
+            }
+            round.clear();
+            written.clear();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram class counts how long something took, in
+ * nanoseconds, in buckets whose width grows with the latency, the way
+ * HdrHistogram does: every power of two is split into SUB_BUCKETS equal
+ * buckets, so any latency is known to within about 3% whatever its size.
+ *
+ * Recording only adds to a bucket, so many games can record into the
+ * same histogram at once. Reading the percentiles goes through every
+ * bucket and is meant for monitoring, not for every command.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class LatencyHistogram {
+    public static final int SUB_BUCKET_BITS = 5;
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    public static final int MAX_EXPONENT = 36;     // latencies from 2^36 ns (about a minute) on share the last bucket.
+
+    private AtomicLongArray buckets;
+    private LongAdder totalNanos;
+    private LongAccumulator maxNanos;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram() {
+        buckets = new AtomicLongArray(bucketOf(Long.MAX_VALUE) + 1);
+        totalNanos = new LongAdder();
+        maxNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    // ------ recording: ------
+
+    /**
+     * Records a latency.
+     * @param nanos the latency in nanoseconds.
+     * @param count how many times to count it, e.g. when only one in so many latencies is measured.
+     */
+    public void record(long nanos, long count) {
+        nanos = Math.max(0, nanos);
+        buckets.getAndAdd(bucketOf(nanos), count);
+        totalNanos.add(nanos * count);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Forgets every recorded latency. Latencies recorded at the
+     * same time by other threads may or may not be forgotten.
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    // ------ accessor methods: ------
+
+    /**
+     * Returns how many latencies were recorded.
+     * @return the amount of recorded latencies.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the mean of the recorded latencies.
+     * @return the mean latency in nanoseconds, 0 if none was recorded.
+     */
+    public long getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : totalNanos.sum() / count;
+    }
+
+    /**
+     * Returns the highest recorded latency.
+     * @return the highest latency in nanoseconds, 0 if none was recorded.
+     */
+    public long getMax() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns the latency under which a given percentage of the recorded latencies are.
+     * @param percentile the percentage, e.g. 99 for the 99th percentile.
+     * @return the highest latency of the bucket the percentile falls in,
+     *         in nanoseconds, 0 if none was recorded.
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = new long[buckets.length()];
+        long count = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        //Find the bucket holding the latency of the given rank
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    // ------ buckets: ------
+
+    /**
+     * Returns the bucket a latency is counted in. Latencies under
+     * SUB_BUCKETS nanoseconds each have their own bucket.
+     * @param nanos the latency in nanoseconds, 0 or more.
+     * @return the index of the bucket.
+     */
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(nanos), MAX_EXPONENT);
+        int subBucket = (int) (Math.min(nanos >>> (exponent - SUB_BUCKET_BITS), 2 * SUB_BUCKETS - 1) - SUB_BUCKETS);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the highest latency counted in a bucket.
+     * @param bucket the index of the bucket.
+     * @return the highest latency of the bucket in nanoseconds.
+     */
+    private static long highestOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        if (exponent == MAX_EXPONENT && subBucket == 2 * SUB_BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        return ((subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -1,5 +1,3 @@
-import java.util.*;
-
 /**
  * This class creates NPCs for the Brooklyn Murder GUI based game.
  *
@@ -15,7 +13,9 @@ import java.util.*;
 
 
 public class NPC {
+    private int id;
     private String name;
+    private String lowerCaseName;
     private Room currentRoom;
     private Quest currentQuest;
     private boolean canMove;
@@ -24,11 +24,14 @@ public class NPC {
     /**
      * Creates an NPC object with a name and a
      * starting point on the map.
+     * @param id the NPC's id in its world.
      * @param name the NPC's name.
      * @param startingRoom the NPC's starting room.
      */
-    public NPC(String name, Room startingRoom) {
+    public NPC(int id, String name, Room startingRoom) {
+        this.id = id;
         this.name = name;
+        lowerCaseName = name.toLowerCase();
         currentRoom = startingRoom;
         currentRoom.addCharacter(this);
         currentQuest = null;
@@ -55,6 +58,15 @@ public class NPC {
         this.defaultInteractions = interactions.split("/");
     }
 
+    /**
+     * Set the NPC's default interactions.
+     * @param interactions the default interactions,
+     * which may be shared with other NPCs.
+     */
+    public void setDefaultInteractions(String[] interactions) {
+        this.defaultInteractions = interactions;
+    }
+
     /**
      * Sets whether an NPC can move around or not.
      * @param canMove true/false whether the NPC can move or not.
@@ -63,6 +75,15 @@ public class NPC {
         this.canMove = canMove;
     }
 
+    /**
+     * Sets the room the NPC is in without updating the rooms'
+     * character lists. Used when restoring a saved game.
+     * @param room the NPC's current room.
+     */
+    public void setCurrentRoom(Room room) {
+        currentRoom = room;
+    }
+
     /**
      * Sets the quest for the NPC.
      * @param quest the quest to give to the NPC.
@@ -73,6 +94,14 @@ public class NPC {
 
     // ------ accessor methods: ------
 
+    /**
+     * Get the NPC's id in its world.
+     * @return the NPC's id.
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * Get the NPC's name.
      * @return the NPC's name.
@@ -81,6 +110,30 @@ public class NPC {
         return name;
     }
 
+    /**
+     * Get the NPC's name in lower case, as typed by players.
+     * @return the NPC's name in lower case.
+     */
+    public String getLowerCaseName() {
+        return lowerCaseName;
+    }
+
+    /**
+     * Get the room the NPC is in.
+     * @return the NPC's current room.
+     */
+    public Room getCurrentRoom() {
+        return currentRoom;
+    }
+
+    /**
+     * Returns whether or not the NPC can move around.
+     * @return whether or not the NPC can move around.
+     */
+    public boolean canMove() {
+        return canMove;
+    }
+
     /**
      * Get the NPC's current quest.
      * @return any active quest the NPC has to offer.
@@ -92,72 +145,70 @@ public class NPC {
     // ------ NPC mechanics: ------
 
     /**
-     * Allows the NPC to change rooms and wander around.
+     * Picks the room the NPC wanders to this turn. The NPC is moved
+     * afterwards by the game's NpcSimulation, along with every other NPC.
+     * @param rand the random generator of the NPC for this turn.
+     * @param graph the exits of the world's rooms.
+     * @return the id of the room to move to, the current room's if the NPC stays.
      */
-    public void changeRoom() {
+    public int pickNextRoom(GameRandom rand, RoomGraph graph) {
 
         //Check if the NPC can move
         if (canMove) {
 
             //Create a 1/3 chance for the NPC to move
-            Random rand = new Random();
             if (rand.nextInt(3) == 0) {
 
                 //Get a random adjacent room to move to
-                HashMap<String, Room> possibleExits = currentRoom.getAllExits();
-                Object[] possibleDirections = possibleExits.keySet().toArray();
-                int directionIndex = rand.nextInt(possibleDirections.length);
-
-                // Remove character from previous room and add it to new room's
-                // character list
-                currentRoom.removeCharacter(this);
-                currentRoom = possibleExits.get(possibleDirections[directionIndex]);
-                currentRoom.addCharacter(this);
+                return graph.randomNeighbor(currentRoom.getId(), rand);
             }
         }
+        return currentRoom.getId();
     }
 
     /**
      * Allows interactions with the NPC.
-     * @return the String result of the interaction.
+     * @param prompt the policy used to ask the player
+     *               whether he/she accepts a quest.
+     * @param rand the game's random generator.
+     * @param output the output to append the result of the interaction to.
      */
-    public String interact() {
-        String output = "";
-        Random rand = new Random();
+    public void interact(PromptPolicy prompt, GameRandom rand, StringBuilder output) {
 
         //Return a default interaction if NPC has no quest to offer
         if (currentQuest == null) {
-            output += ( name + ": " + defaultInteractions[rand.nextInt(defaultInteractions.length)]+"\n");
+            output.append(name).append(": ").append(defaultInteractions[rand.nextInt(defaultInteractions.length)]).append('\n');
         }
 
         //Return its quest's interaction otherwise
         else if (currentQuest.getTasksLeft() != 0) {
-            output += (name + ": "+currentQuest.getInteraction()+"\n");
+            output.append(name).append(": ").append(currentQuest.getInteraction()).append('\n');
             if (!currentQuest.isQuestStarted()) {
-                output += acceptQuest(currentQuest);
+                acceptQuest(currentQuest, prompt, output);
             }
         }
-        return output;
     }
 
     /**
      * Asks the user if he wants to start the quest
      * of the NPC he is interacting with.
      * @param quest The quest to start.
-     * @return The output message to display on the GUI.
+     * @param prompt the policy answering the question.
+     * @param output the output to append the answer of the NPC to.
      */
-    private String acceptQuest(Quest quest) {
+    private void acceptQuest(Quest quest, PromptPolicy prompt, StringBuilder output) {
         String message = "";
         message += quest.getInteraction();
         message += "\n\n";
         message += "Do you want to accept this quest?";
 
-        if (ConfirmWindow.display("Quest Request", message)) {
+        if (prompt.confirm("Quest Request", message)) {
             quest.setQuestStarted(true);
             currentQuest = quest;
-            return (name + ": Thank you for accepting my quest.\n");
+            output.append(name).append(": Thank you for accepting my quest.\n");
         } else {
-            return (name + ": You have declined this quest.\nWhenever you are ready to accept it, just talk to " + name + ".\n");
+            output.append(name).append(": You have declined this quest.\nWhenever you are ready to accept it, just talk to ")
+                    .append(name).append(".\n");
         }
 
     }
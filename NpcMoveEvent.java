@@ -0,0 +1,42 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An NpcMoveEvent is recorded by Java Flight Recorder when an NPC of a
+ * game wanders to another room at the end of a turn.
+ *
+ * Large worlds move thousands of NPCs every turn, so these events are
+ * only recorded when the recording's settings enable them.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+@Name("brooklyn.NpcMove")
+@Label("NPC Move")
+@Category("Brooklyn Murder")
+@Description("An NPC wandering to another room")
+@Enabled(false)
+public class NpcMoveEvent extends jdk.jfr.Event {
+    @Label("Session Id")
+    @Description("Id of the session running the game, 0 outside of a GameHost")
+    long sessionId;
+
+    @Label("Character Id")
+    int characterId;
+
+    @Label("Room Id")
+    @Description("Id of the room the NPC left")
+    int roomId;
+
+    @Label("Next Room Id")
+    @Description("Id of the room the NPC entered")
+    int nextRoomId;
+
+    @Label("Quest Id")
+    @Description("Id of the quest the NPC offers, -1 if none")
+    int questId;
+}
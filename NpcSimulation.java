@@ -0,0 +1,331 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * The NpcSimulation class moves the wandering NPCs of a game at the end of
+ * every turn.
+ *
+ * The world's rooms are split into regions of consecutive room ids, and
+ * every turn goes through three phases, each of them run for all regions
+ * in parallel on a fork-join pool once the game has enough NPCs:
+ *     - every region picks where the NPCs in its occupied rooms go, without
+ *       moving them,
+ *     - every region removes the NPCs leaving its rooms,
+ *     - every region adds the NPCs arriving in its rooms, including those
+ *       handed over by other regions.
+ * Regions only ever change their own rooms, so no locking is needed.
+ * Before planning, the NPCs are gone through once to find the rooms they
+ * are in, so a turn costs as much as the NPCs, however big the world is.
+ *
+ * Every NPC draws its moves from its own random numbers, derived from the
+ * game's seed, the turn and its id, and regions depend only on the world.
+ * A game therefore plays out the same whether its NPCs move on one thread
+ * or on many.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class NpcSimulation {
+    public static final int PARALLEL_THRESHOLD = 4096;
+    private static final int REGION_ROOMS = 256;
+    private static final int MAX_REGIONS = 64;
+    private static final int PLAN = 0;
+    private static final int LEAVE = 1;
+    private static final int ARRIVE = 2;
+
+    private NPC[] characters;
+    private Room[] rooms;
+    private RoomGraph graph;
+    private long seed;
+    private ForkJoinPool pool;
+    private Region[] regions;
+    private int[] nextRooms;        // room each NPC is in after the turn, by NPC id.
+    private long turn;
+    private int[] moved = new int[16];
+    private int[] movedFrom = new int[16];
+    private int movedCount;
+    private Predicate<NPC> leaving;
+    private int[] roomMarks;        // last turn each room was found occupied, by room id.
+    private int mark;
+
+    /**
+     * Creates the simulation of a game's NPCs.
+     * @param characters the game's NPCs, each at the index of its id.
+     * @param rooms the game's rooms, each at the index of its id.
+     * @param graph the exits of the world's rooms.
+     * @param seed the game's seed.
+     * @param pool the pool running the regions in parallel.
+     */
+    public NpcSimulation(NPC[] characters, Room[] rooms, RoomGraph graph, long seed, ForkJoinPool pool) {
+        this.characters = characters;
+        this.rooms = rooms;
+        this.graph = graph;
+        this.seed = seed;
+        this.pool = pool;
+        nextRooms = new int[characters.length];
+        leaving = character -> nextRooms[character.getId()] != character.getCurrentRoom().getId();
+        roomMarks = new int[rooms.length];
+
+        int regionCount = Math.max(1, Math.min(MAX_REGIONS, rooms.length / REGION_ROOMS));
+        regions = new Region[regionCount];
+        for (int region = 0; region < regionCount; region++) {
+            regions[region] = new Region(region);
+        }
+    }
+
+    // ------ accessor methods: ------
+
+    /**
+     * Returns the amount of regions the rooms are split into.
+     * @return the amount of regions.
+     */
+    public int getRegionCount() {
+        return regions.length;
+    }
+
+    /**
+     * Returns the amount of NPCs which changed rooms during the last turn.
+     * @return the amount of moves.
+     */
+    public int getMoveCount() {
+        return movedCount;
+    }
+
+    /**
+     * Returns an NPC which changed rooms during the last turn.
+     * @param index the index of the move, from 0 to getMoveCount() - 1.
+     * @return the NPC, now in the room it moved to.
+     */
+    public NPC getMovedCharacter(int index) {
+        return characters[moved[index]];
+    }
+
+    /**
+     * Returns the room an NPC left during the last turn.
+     * @param index the index of the move, from 0 to getMoveCount() - 1.
+     * @return the id of the room the NPC left.
+     */
+    public int getPreviousRoom(int index) {
+        return movedFrom[index];
+    }
+
+    // ------ simulation: ------
+
+    /**
+     * Moves the NPCs for a turn.
+     * @param turn the turn, drawing different moves from every other turn.
+     */
+    public void advance(long turn) {
+        this.turn = turn;
+        findOccupiedRooms();
+        runPhase(PLAN);
+        runPhase(LEAVE);
+        runPhase(ARRIVE);
+
+        //List the moves in a fixed order, region by region
+        movedCount = 0;
+        for (Region region : regions) {
+            if (movedCount + region.moverCount > moved.length) {
+                int capacity = Math.max(moved.length * 2, movedCount + region.moverCount);
+                moved = Arrays.copyOf(moved, capacity);
+                movedFrom = Arrays.copyOf(movedFrom, capacity);
+            }
+            System.arraycopy(region.movers, 0, moved, movedCount, region.moverCount);
+            System.arraycopy(region.moverRooms, 0, movedFrom, movedCount, region.moverCount);
+            movedCount += region.moverCount;
+        }
+    }
+
+    /**
+     * Lists the rooms NPCs are in, each in the region it belongs to.
+     */
+    private void findOccupiedRooms() {
+        mark++;
+        for (Region region : regions) {
+            region.occupiedCount = 0;
+        }
+        for (NPC character : characters) {
+            int room = character.getCurrentRoom().getId();
+            if (roomMarks[room] != mark) {
+                roomMarks[room] = mark;
+                regions[regionOf(room)].addOccupiedRoom(room);
+            }
+        }
+    }
+
+    /**
+     * Runs a phase for every region, in parallel if the game has enough NPCs.
+     * @param phase the phase to run.
+     */
+    private void runPhase(int phase) {
+        if (characters.length < PARALLEL_THRESHOLD || regions.length == 1) {
+            for (Region region : regions) {
+                region.run(phase);
+            }
+        } else {
+            pool.invoke(new PhaseTask(phase, 0, regions.length));
+        }
+    }
+
+    /**
+     * Returns the region a room is in.
+     * @param room the room's id.
+     * @return the index of the region.
+     */
+    private int regionOf(int room) {
+        return (int) (((long) (room + 1) * regions.length - 1) / rooms.length);
+    }
+
+    /**
+     * A range of rooms moved by a single thread at a time.
+     */
+    private class Region {
+        private int index;
+        private int[] occupiedRooms = new int[16];  // rooms of the region NPCs are in.
+        private int occupiedCount;
+        private GameRandom random = new GameRandom(0);
+        private int[] movers = new int[16];         // ids of the NPCs leaving the region's rooms.
+        private int[] moverRooms = new int[16];     // rooms they leave.
+        private int moverCount;
+        private int[] outgoing = new int[16];       // movers grouped by the region they go to.
+        private int[] outgoingOffsets;
+        private int[] leftRooms = new int[16];
+        private int leftRoomCount;
+
+        private Region(int index) {
+            this.index = index;
+            outgoingOffsets = new int[regions.length + 1];
+        }
+
+        private void run(int phase) {
+            if (phase == PLAN) {
+                plan();
+            } else if (phase == LEAVE) {
+                leave();
+            } else {
+                arrive();
+            }
+        }
+
+        /**
+         * Picks where every NPC in the region's rooms goes, room by room.
+         */
+        private void plan() {
+            moverCount = 0;
+            leftRoomCount = 0;
+            Arrays.sort(occupiedRooms, 0, occupiedCount);
+            for (int j = 0; j < occupiedCount; j++) {
+                int room = occupiedRooms[j];
+                ArrayList<NPC> present = rooms[room].getCharacters();
+                int moversBefore = moverCount;
+                for (int i = 0; i < present.size(); i++) {
+                    NPC character = present.get(i);
+                    random.reseed(seed, turn, character.getId());
+                    int nextRoom = character.pickNextRoom(random, graph);
+                    nextRooms[character.getId()] = nextRoom;
+                    if (nextRoom != room) {
+                        addMover(character.getId(), room);
+                    }
+                }
+                if (moverCount > moversBefore) {
+                    if (leftRoomCount == leftRooms.length) {
+                        leftRooms = Arrays.copyOf(leftRooms, leftRoomCount * 2);
+                    }
+                    leftRooms[leftRoomCount++] = room;
+                }
+            }
+
+            //Group the movers by the region they go to, keeping their order
+            int[] offsets = outgoingOffsets;
+            Arrays.fill(offsets, 0, regions.length + 1, 0);
+            for (int i = 0; i < moverCount; i++) {
+                offsets[regionOf(nextRooms[movers[i]]) + 1]++;
+            }
+            for (int region = 0; region < regions.length; region++) {
+                offsets[region + 1] += offsets[region];
+            }
+            if (outgoing.length < moverCount) {
+                outgoing = new int[movers.length];
+            }
+            for (int i = 0; i < moverCount; i++) {
+                int region = regionOf(nextRooms[movers[i]]);
+                outgoing[offsets[region]++] = movers[i];
+            }
+            for (int region = regions.length; region > 0; region--) {
+                offsets[region] = offsets[region - 1];
+            }
+            offsets[0] = 0;
+        }
+
+        /**
+         * Removes the NPCs leaving the region's rooms.
+         */
+        private void leave() {
+            for (int i = 0; i < leftRoomCount; i++) {
+                rooms[leftRooms[i]].removeCharacters(leaving);
+            }
+        }
+
+        /**
+         * Adds the NPCs arriving in the region's rooms, region by region.
+         */
+        private void arrive() {
+            for (Region source : regions) {
+                for (int i = source.outgoingOffsets[index]; i < source.outgoingOffsets[index + 1]; i++) {
+                    NPC character = characters[source.outgoing[i]];
+                    Room room = rooms[nextRooms[character.getId()]];
+                    room.addCharacter(character);
+                    character.setCurrentRoom(room);
+                }
+            }
+        }
+
+        private void addOccupiedRoom(int room) {
+            if (occupiedCount == occupiedRooms.length) {
+                occupiedRooms = Arrays.copyOf(occupiedRooms, occupiedCount * 2);
+            }
+            occupiedRooms[occupiedCount++] = room;
+        }
+
+        private void addMover(int character, int room) {
+            if (moverCount == movers.length) {
+                movers = Arrays.copyOf(movers, moverCount * 2);
+                moverRooms = Arrays.copyOf(moverRooms, moverCount * 2);
+            }
+            movers[moverCount] = character;
+            moverRooms[moverCount] = room;
+            moverCount++;
+        }
+    }
+
+    /**
+     * Runs a phase for a range of regions, splitting the range between threads.
+     */
+    private class PhaseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private int phase;
+        private int from;
+        private int to;
+
+        private PhaseTask(int phase, int from, int to) {
+            this.phase = phase;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                regions[from].run(phase);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PhaseTask(phase, from, middle), new PhaseTask(phase, middle, to));
+        }
+    }
+}
@@ -1,5 +1,4 @@
 import java.util.ArrayList;
-import java.util.HashMap;
 
 /**
  * This class creates players for the Brooklyn Murder GUI based game.
@@ -19,17 +18,27 @@ import java.util.HashMap;
 public class Player {
     private Room currentRoom;
     private ArrayList<Room> previousRooms;
-    private ArrayList<Item> inventory;
+    private Inventory inventory;
+    private ItemRegistry itemRegistry;
+    private Item[] items;
     private int inventoryMaxSize = 10;
     private ArrayList<Quest> activeQuests;
-    private HashMap<Room, Quest> questRooms;
+    private RoomTriggers roomTriggers;
 
-    public Player(Room startingRoom){
+    /**
+     * Create a player in his/her starting room.
+     * @param startingRoom the room the player starts in.
+     * @param itemRegistry resolves item names to item ids.
+     * @param items the game's items, each at the index of its id.
+     */
+    public Player(Room startingRoom, ItemRegistry itemRegistry, Item[] items){
+        this.itemRegistry = itemRegistry;
+        this.items = items;
         currentRoom = startingRoom;
         previousRooms = new ArrayList<>();
-        inventory = new ArrayList<>();
+        inventory = new Inventory(inventoryMaxSize);
         activeQuests = new ArrayList<>();
-        questRooms = new HashMap<>();
+        roomTriggers = new RoomTriggers();
     }
 
     // ------ accessor methods: ------
@@ -51,20 +60,28 @@ public class Player {
     }
 
     /**
-     * Returns the rooms linked to one of the player's
-     * active quests mapped to the corresponding quest.
-     * @return the rooms linked to one of the player's
-     * active quests mapped to the corresponding quest.
+     * Returns the rooms the player came from, the last one
+     * being the room he/she would go back to.
+     * @return the rooms the player came from.
+     */
+    public ArrayList<Room> getPreviousRooms() {
+        return previousRooms;
+    }
+
+    /**
+     * Returns the rooms linked to the player's active
+     * quests, with the quests waiting on each of them.
+     * @return the player's room triggers.
      */
-    public HashMap<Room, Quest> getQuestRooms() {
-        return questRooms;
+    public RoomTriggers getRoomTriggers() {
+        return roomTriggers;
     }
 
     /**
      * Returns the player's inventory.
-     * @return the player's inventory as an ArrayList.
+     * @return the player's inventory.
      */
-    public ArrayList<Item> getInventory() {
+    public Inventory getInventory() {
         return inventory;
     }
 
@@ -93,20 +110,28 @@ public class Player {
         currentRoom = room;
     }
 
+    /**
+     * Puts the player in a room without remembering where he/she
+     * came from. Used when restoring a saved game.
+     * @param room the room the player is in.
+     */
+    public void setCurrentRoom(Room room) {
+        currentRoom = room;
+    }
+
     /**
      * Allows the player to go back to the
      * room he/she was in before.
-     * @return any message to be displayed on the GUI.
+     * @param output the output to append any message to.
      */
-    public String goBack() {
+    public void goBack(StringBuilder output) {
 
         //Check if there is a previous room
         if (previousRooms.size() != 0) {
             currentRoom = previousRooms.get(previousRooms.size()-1);
             previousRooms.remove(previousRooms.size()-1);
-            return "";
         } else {
-            return "There is no previous room.\n";
+            output.append("There is no previous room.\n");
         }
     }
 
@@ -114,59 +139,66 @@ public class Player {
      * Allows the player to inspect an item
      * from his/her inventory.
      * @param itemName the item to inspect.
-     * @return the inspection to be shown on the GUI.
+     * @param output the output to append the inspection to.
      */
-    public String inspectItem(String itemName){
-        String output = "";
-        Item itemToInspect = itemInInv(itemName);
-        output += ("Amount in inventory: " + itemToInspect.getAmount()
-                + " - Max amount you can hold: " + itemToInspect.getMaxAmount() + "\n");
-        output += (itemToInspect.getName() + ": " + itemToInspect.getDescription()+"\n");
-        return output;
+    public void inspectItem(String itemName, StringBuilder output){
+        Item itemToInspect = itemInInv(itemRegistry.getId(itemName));
+        output.append("Amount in inventory: ").append(inventory.getAmount(itemToInspect.getId()))
+                .append(" - Max amount you can hold: ").append(itemToInspect.getMaxAmount()).append('\n');
+        output.append(itemToInspect.getName()).append(": ").append(itemToInspect.getDescription()).append('\n');
     }
 
     /**
      * Allos the player to take an item.
      * @param itemName item to take.
-     * @return any message to output on the GUI.
+     * @param output the output to append any message to.
      */
-    public String takeItem(String itemName){
-        String output = "";
-        Item itemToTake = null;
-        int amountToAdd = 0;
+    public void takeItem(String itemName, StringBuilder output){
 
         //Get the item object and the amount that can be taken
-        for (Item item : currentRoom.getItemsInRoom().keySet()) {
-            if (item.getName().equals(itemName) || item.getPluralName().equals(itemName)) {
-                itemToTake = item;
-                amountToAdd = currentRoom.getItemAmount(item);
-            }
+        int itemId = itemRegistry.getId(itemName);
+        Item itemToTake = (itemId == -1) ? null : items[itemId];
+        if (itemToTake == null || !currentRoom.containsItem(itemToTake)) {
+            output.append("There is no ").append(itemName).append(" in this room.\n");
+            return;
         }
+        int amountToAdd = currentRoom.getItemAmount(itemToTake);
 
         //Check if item can be picked up
         if (!itemToTake.isPickable()) {
-            output += "This item can not be picked up.\n";
+            output.append("This item can not be picked up.\n");
         } else {
 
             //Try adding item to inventory, take max that can be
             // taken if inventory does not have enough space for all
-            if (itemInInv(itemToTake.getName()) != null) {
-                output+= itemToTake.take(amountToAdd);
-                currentRoom.setItemAmount(itemToTake, itemToTake.getExtraAmount());
-            } else if (inventory.size() >= inventoryMaxSize) {
-                output += ("Inventory full - Could not take " + itemToTake.getName() + ".\n");
-            } else {
-                inventory.add(itemToTake);
-                output += itemToTake.take(amountToAdd);
-                currentRoom.setItemAmount(itemToTake, itemToTake.getExtraAmount());
-            }
+            int leftovers = amountToAdd - amountThatFits(itemToTake, amountToAdd);
+            addItemToInv(itemToTake, amountToAdd, output);
 
             //Remove the item from the room if there were no leftovers when taking it
-            if (itemToTake.getExtraAmount() == 0) {
+            if (leftovers == 0) {
                 currentRoom.removeItem(itemToTake);
+            } else {
+                currentRoom.setItemAmount(itemToTake, leftovers);
             }
         }
-        return output;
+    }
+
+    /**
+     * Allows the player to drop every unit of an item
+     * from his/her inventory in his/her current room.
+     * @param itemName item to drop.
+     * @param output the output to append any message to.
+     */
+    public void dropItem(String itemName, StringBuilder output) {
+        Item itemToDrop = itemInInv(itemRegistry.getId(itemName));
+        if (itemToDrop == null) {
+            output.append("You do not have any ").append(itemName).append(".\n");
+            return;
+        }
+        int amount = inventory.getAmount(itemToDrop.getId());
+        inventory.remove(itemToDrop.getId(), amount);
+        currentRoom.addItem(itemToDrop, currentRoom.getItemAmount(itemToDrop) + amount);
+        output.append(amount).append(' ').append(itemToDrop.getStringName(amount)).append(" dropped.\n");
     }
 
     /**
@@ -177,16 +209,7 @@ public class Player {
      * @return Returns true if item successfully given.
      */
     public boolean give(Item item, int amountToGive) {
-        if (!inventory.contains(item)) {
-            return false;
-        } else if (item.getAmount() < amountToGive) {
-            return false;
-        }
-        item.remove(amountToGive);
-        if (item.getAmount()==0) {
-            inventory.remove(item);
-        }
-        return true;
+        return inventory.remove(item.getId(), amountToGive);
     }
 
     // ------ miscellaneous methods: ------
@@ -196,16 +219,23 @@ public class Player {
      * given an upper bound the inventory limits.
      * @param item item to add.
      * @param amountToAdd amount to add.
-     * @return any message to output to the GUI.
+     * @param output the output to append any message to.
      */
-    public String addItemToInv(Item item, int amountToAdd) {
-        if (itemInInv(item.getName()) != null) {
-            return item.take(amountToAdd);
-        } else if (inventory.size() >= inventoryMaxSize) {
-            return ("Inventory full - Could not take " + item.getName() + ".\n");
-        } else {
-            inventory.add(item);
-            return item.take(amountToAdd);
+    public void addItemToInv(Item item, int amountToAdd, StringBuilder output) {
+        if (!inventory.contains(item.getId()) && inventory.isFull()) {
+            output.append("Inventory full - Could not take ").append(item.getName()).append(".\n");
+            return;
+        } else if (inventory.getAmount(item.getId()) == item.getMaxAmount()) {
+            output.append("You can not store any more ").append(item.getPluralName()).append(" in your inventory.\n");
+            return;
+        }
+
+        //Only add what fits under the item's max amount
+        int amountAdded = amountThatFits(item, amountToAdd);
+        inventory.add(item.getId(), amountAdded);
+        output.append(amountAdded).append(' ').append(item.getStringName(amountAdded)).append(" was added to your inventory.\n");
+        if (amountAdded < amountToAdd) {
+            output.append("You can not store any more ").append(item.getPluralName()).append(" in your inventory.\n");
         }
     }
 
@@ -216,7 +246,7 @@ public class Player {
     public void addActiveQuest(Quest quest) {
         activeQuests.add(quest);
         if (quest.getRequestedRoom() != null) {
-            questRooms.put(quest.getRequestedRoom(), quest);
+            roomTriggers.add(quest.getRequestedRoom().getId(), quest.getId());
         }
     }
 
@@ -229,53 +259,63 @@ public class Player {
     }
 
     /**
-     * Returns the players active quests nicely displayed in a string.
-     * @return a string of the player's active quests.
+     * Appends the players active quests nicely displayed to an output.
+     * @param quests the output to append the player's active quests to.
      */
-    public String showActiveQuests(){
-        String quests = "";
+    public void showActiveQuests(StringBuilder quests){
 
         //Check if there are any active quests
         if (activeQuests.size()==0) {
-            quests += "You currently have no active quest.";
+            quests.append("You currently have no active quest.");
         } else {
-            for (Quest quest : activeQuests) {
-                quests += (quest+"\n\n");
+            for (int i = 0; i < activeQuests.size(); i++) {
+                activeQuests.get(i).describe(quests);
+                quests.append("\n\n");
             }
         }
-        return quests;
     }
 
     /**
-     * Returns the player's inventory nicely displayed in a string.
-     * @return a string of the player's inventory.
+     * Appends the player's inventory nicely displayed to an output.
+     * @param inventoryDisplay the output to append the player's inventory to.
      */
-    public String showInventory(){
-        String inventoryDisplay = "";
+    public void showInventory(StringBuilder inventoryDisplay){
         //Check if inventory is not empty
         if (inventory.size() == 0){
-            inventoryDisplay += "Your inventory is empty.";
+            inventoryDisplay.append("Your inventory is empty.");
         } else {
-            for (Item item : inventory) {
-                inventoryDisplay += (item.toString()+"\n");
+            for (int slot = 0; slot < inventory.size(); slot++) {
+                int amount = inventory.getAmountAt(slot);
+                inventoryDisplay.append(amount).append(' ')
+                        .append(items[inventory.getItemId(slot)].getStringName(amount)).append('\n');
             }
         }
-        return inventoryDisplay;
     }
 
     // ------ private methods: ------
 
     /**
-     * Gets an item object in the inventory given an item name.
-     * @param itemName the item's name.
-     * @return the item object.
+     * Gets an item object in the inventory given an item id.
+     * @param itemId the item's id, -1 for an unknown item.
+     * @return the item object, or null if it is not in the inventory.
      */
-    private Item itemInInv(String itemName) {
-        for (Item item : inventory) {
-            if (item.getName().equals(itemName) || item.getPluralName().equals(itemName)) {
-                return item;
-            }
+    private Item itemInInv(int itemId) {
+        if (itemId == -1 || !inventory.contains(itemId)) {
+            return null;
+        }
+        return items[itemId];
+    }
+
+    /**
+     * Returns how many of an amount of items would fit in the inventory.
+     * @param item the item to add.
+     * @param amountToAdd the amount to add.
+     * @return the amount that fits, at most amountToAdd.
+     */
+    private int amountThatFits(Item item, int amountToAdd) {
+        if (!inventory.contains(item.getId()) && inventory.isFull()) {
+            return 0;
         }
-        return null;
+        return Math.max(0, Math.min(amountToAdd, item.getMaxAmount() - inventory.getAmount(item.getId())));
     }
 }
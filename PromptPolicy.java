@@ -0,0 +1,32 @@
+/**
+ * A PromptPolicy decides how the game's yes/no questions are answered,
+ * for example whether the player accepts a quest offered by an NPC.
+ *
+ * The GUI answers them through a ConfirmWindow. Headless runs, such as
+ * the ScriptRunner, use one of the fixed policies below instead so that
+ * the game can be played without JavaFX.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public interface PromptPolicy {
+
+    /**
+     * Policy answering yes to every question.
+     */
+    PromptPolicy ALWAYS_ACCEPT = (title, message) -> true;
+
+    /**
+     * Policy answering no to every question.
+     */
+    PromptPolicy ALWAYS_DECLINE = (title, message) -> false;
+
+    /**
+     * Asks a yes/no question.
+     * @param title the title of the question.
+     * @param message the question itself.
+     * @return true if the answer is yes, false otherwise.
+     */
+    boolean confirm(String title, String message);
+}
@@ -8,7 +8,8 @@ import java.util.HashMap;
  * Item reward upon completion, request items from players,
  * request players to go to certain rooms, return starting,
  * started and completion messages, and unlock other quests
- * when they are started or finished and be unlocked by other quests.
+ * when they are started or finished and be unlocked by other quests,
+ * as described by the world's QuestGraph.
  *
  * @author Henri Boistel de Belloy
  * @version 2018.11.30
@@ -16,41 +17,39 @@ import java.util.HashMap;
 
 
 public class Quest {
+    private int id;
     private String name;
     private String description;
     private String completionMsg;
     private String[] interactions = new String[2];
     private HashMap<Item, Integer> requestedItems;
     private Room requestedRoom;
-    private String itemReward = "";
+    private Item[] rewardItems = new Item[0];
+    private int[] rewardAmounts = new int[0];
     private boolean isAccomplished;
     private boolean questStarted;
     private int tasksLeft;
     private NPC questGiver;
-    private String unlocksQuests;
-    private String nextQuests;
     private int unlockCounter; // This quest successfully initiates once the quest counter reaches 0 or under.
 
     /**
      * Creates a new quest that can be made available to a player through an npc.
+     * @param id the quest's id in its world.
      * @param questGiver the NPC that gives the quest.
      * @param name the name of the quest.
      * @param description the quest's description.
      * @param startingInteraction the quest's starting message.
      * @param startedInteraction the quest's started message.
      * @param completionMsg the quest's completion message
-     * @param unlocksQuests the quests to unlock once this one is started.
-     * @param nextQuests the quests to unlock once this one is finished.
      * @param unlockCounter the amount of previous quests linked to this one
      *                      required to be started/completed for this quest to unlock.
      */
-    public Quest(NPC questGiver, String name, String description, String startingInteraction, String startedInteraction, String completionMsg, String unlocksQuests, String nextQuests, int unlockCounter) {
+    public Quest(int id, NPC questGiver, String name, String description, String startingInteraction, String startedInteraction, String completionMsg, int unlockCounter) {
+        this.id = id;
         this.questGiver = questGiver;
         this.name = name;
         this.description = description;
         this.completionMsg = completionMsg;
-        this.unlocksQuests = unlocksQuests;
-        this.nextQuests = nextQuests;
         this.unlockCounter = unlockCounter;
         interactions[0] = startingInteraction;
         interactions[1] = startedInteraction;
@@ -68,14 +67,49 @@ public class Quest {
         return "Quest: " + name + ".\n" + description;
     }
 
+    /**
+     * Appends the quest's name and description to an output,
+     * in the same form as toString.
+     * @param output the output to append to.
+     */
+    public void describe(StringBuilder output) {
+        output.append("Quest: ").append(name).append(".\n").append(description);
+    }
+
     // ------ accessor methods: ------
 
     /**
-     * Returns the item rewards for this quest.
-     * @return the item rewards for this quest.
+     * Returns the quest's id in its world.
+     * @return the quest's id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the amount of different items rewarded for this quest.
+     * @return the amount of rewarded items.
      */
-    public String getItemReward() {
-        return itemReward;
+    public int getRewardCount() {
+        return rewardItems.length;
+    }
+
+    /**
+     * Returns one of the items rewarded for this quest.
+     * @param index the index of the reward, from 0 to getRewardCount() - 1.
+     * @return the rewarded item.
+     */
+    public Item getRewardItem(int index) {
+        return rewardItems[index];
+    }
+
+    /**
+     * Returns the amount of one of the items rewarded for this quest.
+     * @param index the index of the reward, from 0 to getRewardCount() - 1.
+     * @return the amount of the rewarded item.
+     */
+    public int getRewardAmount(int index) {
+        return rewardAmounts[index];
     }
 
     /**
@@ -87,19 +121,21 @@ public class Quest {
     }
 
     /**
-     * Returns the quests to unlock when this quest is started.
-     * @return the quests to unlock once this one is started.
+     * Returns the amount of linked quests still required
+     * to be started/completed for this quest to unlock.
+     * @return the quest's unlock counter.
      */
-    public String getUnlocksQuests() {
-        return unlocksQuests;
+    public int getUnlockCounter() {
+        return unlockCounter;
     }
 
     /**
-     * Returns the quests to unlock once this one has been completed.
-     * @return the quests to unlock once this one has been completed.
+     * Returns the items still requested by the quest
+     * mapped to the amount requested.
+     * @return the items still requested by the quest.
      */
-    public String getNextQuests() {
-        return nextQuests;
+    public HashMap<Item, Integer> getRequestedItems() {
+        return requestedItems;
     }
 
     /**
@@ -141,22 +177,12 @@ public class Quest {
     }
 
     /**
-     * Returns an item object given the name of a
-     * requested item if the quest is active and
-     * requires the item. Returns null otherwise.
-     * @param itemName The name of the requested item.
-     * @return Returns the item object if found given
-     * the item name and if the quest is active.
+     * Returns whether the quest is active and requires a given item.
+     * @param item the item, may be null.
+     * @return true if the quest is active and requests the item.
      */
-    public Item getRequestedItem(String itemName) {
-        if (questStarted) {
-            for (Item item : requestedItems.keySet()) {
-                if (item.getName().equals(itemName) || item.getPluralName().equals(itemName)) {
-                    return item;
-                }
-            }
-        }
-        return null;
+    public boolean requestsItem(Item item) {
+        return questStarted && item != null && requestedItems.containsKey(item);
     }
 
     /**
@@ -176,13 +202,12 @@ public class Quest {
 
     /**
      * Set item rewards to give to the completer of the quest.
-     * @param reward a String of the rewards in the format:
-     *               "itemName itemAmount/itemName itemAmount/..."
+     * @param items the rewarded items.
+     * @param amounts the amount of each rewarded item.
      */
-    public void setItemReward(String reward) {
-
-        // Must be in format "itemName1 amount/item2Name amount/. ./"
-        itemReward = reward;
+    public void setItemRewards(Item[] items, int[] amounts) {
+        rewardItems = items;
+        rewardAmounts = amounts;
     }
 
     /**
@@ -212,6 +237,23 @@ public class Quest {
         this.questStarted = questStarted;
     }
 
+    /**
+     * Sets whether or not the quest has been completed.
+     * @param accomplished Boolean to set.
+     */
+    public void setAccomplished(boolean accomplished) {
+        isAccomplished = accomplished;
+    }
+
+    /**
+     * Sets the quest's unlock counter.
+     * @param unlockCounter the amount of linked quests still required
+     *                      to be started/completed for this quest to unlock.
+     */
+    public void setUnlockCounter(int unlockCounter) {
+        this.unlockCounter = unlockCounter;
+    }
+
     /**
      * Sets the amount of tasks left to complete the quest.
      * @param tasksLeft mount of tasks left.
@@ -225,12 +267,15 @@ public class Quest {
     /**
      * Decrements the unlock counter and sets the quest to
      * the given NPC if that counter reaches 0.
+     * @return true if the quest was set to its NPC, false otherwise.
      */
-    public void initiateQuest() {
+    public boolean initiateQuest() {
         unlockCounter--;
         if (unlockCounter <= 0) {
             questGiver.setQuest(this);
+            return true;
         }
+        return false;
     }
 
     /**
@@ -253,12 +298,12 @@ public class Quest {
 
     /**
      * Markes the quest as completed and
-     * returns the completion message.
-     * @return the completion message.
+     * appends the completion message to an output.
+     * @param output the output to append the completion message to.
      */
-    public String finishQuest() {
+    public void finishQuest(StringBuilder output) {
         isAccomplished = true;
         questGiver.setQuest(null);
-        return (questGiver + ": " + completionMsg + "\n");
+        output.append(questGiver.getName()).append(": ").append(completionMsg).append('\n');
     }
 }
@@ -0,0 +1,38 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A QuestEvent is recorded by Java Flight Recorder when a quest of a game
+ * changes state: when it is unlocked and offered by its NPC, when the
+ * player accepts it and when the player finishes it.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+@Name("brooklyn.Quest")
+@Label("Quest")
+@Category("Brooklyn Murder")
+@Description("A quest unlocked, started or finished")
+public class QuestEvent extends jdk.jfr.Event {
+    public static final String UNLOCKED = "unlocked";
+    public static final String STARTED = "started";
+    public static final String FINISHED = "finished";
+
+    @Label("Session Id")
+    @Description("Id of the session running the game, 0 outside of a GameHost")
+    long sessionId;
+
+    @Label("Room Id")
+    @Description("Id of the room the player is in")
+    int roomId;
+
+    @Label("Quest Id")
+    int questId;
+
+    @Label("Transition")
+    @Description("What happened to the quest: unlocked, started or finished")
+    String transition;
+}
@@ -0,0 +1,200 @@
+import java.util.HashMap;
+
+/**
+ * The QuestGraph class holds how the quests of a world unlock each other.
+ *
+ * A quest can unlock other quests when it is started and when it is
+ * finished. Quest definitions name those quests by key in the '/'
+ * separated format used by world files; the graph resolves the keys once
+ * when the world is built and stores both kinds of edges as int arrays
+ * indexed by quest id, along with how many edges lead to every quest.
+ * Starting or finishing a quest then only walks arrays.
+ *
+ * Each kind of edge must be free of cycles on its own. A quest may still
+ * unlock, when started, a quest which unlocks it back when finished.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class QuestGraph {
+    private int[] startOffsets;     // edges of quest q are startTargets[startOffsets[q]..startOffsets[q + 1]).
+    private int[] startTargets;
+    private int[] finishOffsets;    // edges of quest q are finishTargets[finishOffsets[q]..finishOffsets[q + 1]).
+    private int[] finishTargets;
+    private int[] inDegrees;
+
+    /**
+     * Compiles the graph of a world's quests.
+     * @param quests the definitions of the quests, each at the index of its id.
+     * @throws IllegalArgumentException if a quest unlocks an unknown quest,
+     *                                  if the quests unlocking each other form
+     *                                  a cycle, or if a quest can never unlock.
+     */
+    public QuestGraph(WorldTemplate.QuestDefinition[] quests) {
+        HashMap<String, Integer> ids = new HashMap<>(quests.length * 2);
+        for (WorldTemplate.QuestDefinition quest : quests) {
+            ids.put(quest.getKey(), quest.getId());
+        }
+
+        startOffsets = new int[quests.length + 1];
+        finishOffsets = new int[quests.length + 1];
+        String[][] started = new String[quests.length][];
+        String[][] finished = new String[quests.length][];
+        for (WorldTemplate.QuestDefinition quest : quests) {
+            started[quest.getId()] = quest.getUnlocksQuests().split("/");
+            finished[quest.getId()] = quest.getNextQuests().split("/");
+        }
+        startTargets = compile(quests, ids, started, startOffsets);
+        finishTargets = compile(quests, ids, finished, finishOffsets);
+
+        //Count the quests unlocking each quest
+        inDegrees = new int[quests.length];
+        for (int target : startTargets) {
+            inDegrees[target]++;
+        }
+        for (int target : finishTargets) {
+            inDegrees[target]++;
+        }
+
+        checkAcyclic(quests, startOffsets, startTargets, "started");
+        checkAcyclic(quests, finishOffsets, finishTargets, "finished");
+        for (WorldTemplate.QuestDefinition quest : quests) {
+            int unlocks = inDegrees[quest.getId()] + (quest.isInitiatedAtStart() ? 1 : 0);
+            if (quest.getUnlockCounter() > unlocks) {
+                throw new WorldTemplate.InvalidQuestException(quest.getId(), "Quest " + quest.getKey() + " needs "
+                        + quest.getUnlockCounter() + " unlocks but only " + unlocks + " can happen.");
+            }
+        }
+    }
+
+    // ------ accessor methods: ------
+
+    /**
+     * Returns the amount of quests unlocked when a quest is started.
+     * @param quest the quest's id.
+     * @return the amount of quests it unlocks when started.
+     */
+    public int getStartUnlockCount(int quest) {
+        return startOffsets[quest + 1] - startOffsets[quest];
+    }
+
+    /**
+     * Returns one of the quests unlocked when a quest is started.
+     * @param quest the quest's id.
+     * @param index the index of the unlocked quest, from 0 to getStartUnlockCount(quest) - 1.
+     * @return the id of the unlocked quest.
+     */
+    public int getStartUnlock(int quest, int index) {
+        return startTargets[startOffsets[quest] + index];
+    }
+
+    /**
+     * Returns the amount of quests unlocked when a quest is finished.
+     * @param quest the quest's id.
+     * @return the amount of quests it unlocks when finished.
+     */
+    public int getFinishUnlockCount(int quest) {
+        return finishOffsets[quest + 1] - finishOffsets[quest];
+    }
+
+    /**
+     * Returns one of the quests unlocked when a quest is finished.
+     * @param quest the quest's id.
+     * @param index the index of the unlocked quest, from 0 to getFinishUnlockCount(quest) - 1.
+     * @return the id of the unlocked quest.
+     */
+    public int getFinishUnlock(int quest, int index) {
+        return finishTargets[finishOffsets[quest] + index];
+    }
+
+    /**
+     * Returns how many times other quests unlock a quest,
+     * when they are started or finished.
+     * @param quest the quest's id.
+     * @return the amount of edges leading to the quest.
+     */
+    public int getInDegree(int quest) {
+        return inDegrees[quest];
+    }
+
+    // ------ private methods: ------
+
+    /**
+     * Resolves the quest keys of one kind of edge into a flat array of ids.
+     * @param quests the definitions of the quests.
+     * @param ids the quest ids by key.
+     * @param keys the keys of the quests unlocked by each quest.
+     * @param offsets filled with where the edges of each quest start.
+     * @return the ids of the unlocked quests, grouped by unlocking quest.
+     */
+    private static int[] compile(WorldTemplate.QuestDefinition[] quests, HashMap<String, Integer> ids,
+                                 String[][] keys, int[] offsets) {
+        int edgeCount = 0;
+        for (String[] questKeys : keys) {
+            for (String key : questKeys) {
+                if (!key.isEmpty()) {
+                    edgeCount++;
+                }
+            }
+        }
+
+        int[] targets = new int[edgeCount];
+        int edge = 0;
+        for (int quest = 0; quest < keys.length; quest++) {
+            offsets[quest] = edge;
+            for (String key : keys[quest]) {
+                if (key.isEmpty()) {
+                    continue;
+                }
+                Integer target = ids.get(key);
+                if (target == null) {
+                    throw new WorldTemplate.InvalidQuestException(quest,
+                            "Quest " + quests[quest].getKey() + " unlocks unknown quest: " + key);
+                }
+                targets[edge++] = target;
+            }
+        }
+        offsets[keys.length] = edge;
+        return targets;
+    }
+
+    /**
+     * Checks that one kind of edge has no cycle by removing quests
+     * nothing leads to until none are left.
+     * @param quests the definitions of the quests.
+     * @param offsets where the edges of each quest start.
+     * @param targets the ids of the unlocked quests.
+     * @param kind when the edges are followed, for error messages.
+     */
+    private static void checkAcyclic(WorldTemplate.QuestDefinition[] quests, int[] offsets, int[] targets, String kind) {
+        int[] remaining = new int[quests.length];
+        for (int target : targets) {
+            remaining[target]++;
+        }
+        int[] ready = new int[quests.length];
+        int readyCount = 0;
+        for (int quest = 0; quest < quests.length; quest++) {
+            if (remaining[quest] == 0) {
+                ready[readyCount++] = quest;
+            }
+        }
+
+        for (int next = 0; next < readyCount; next++) {
+            int quest = ready[next];
+            for (int edge = offsets[quest]; edge < offsets[quest + 1]; edge++) {
+                if (--remaining[targets[edge]] == 0) {
+                    ready[readyCount++] = targets[edge];
+                }
+            }
+        }
+
+        //Every quest left is on a cycle or only reachable through one
+        for (int quest = 0; quest < quests.length; quest++) {
+            if (remaining[quest] > 0) {
+                throw new WorldTemplate.InvalidQuestException(quest, "Quests unlocked when " + kind
+                        + " form a cycle through quest " + quests[quest].getKey() + ".");
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.function.Predicate;
 
 /**
  * Class Room - a room in an adventure game.
@@ -13,34 +15,69 @@ import java.util.HashMap;
  */
 
 public class Room {
+    private static final Item[] NO_ITEMS = new Item[0];
+    private static final int[] NO_AMOUNTS = new int[0];
 
+    private int id;
+    private String name;
     private String description;
     private HashMap<String, Room> exits;        // stores exits of this room.
-    private HashMap<Item, Integer> items;
+    private Item[] items;                       // items in the room, sorted by id.
+    private int[] itemAmounts;                  // amount of each item in items.
+    private int itemCount;
     private ArrayList<NPC> characters;
+    private HashMap<String, NPC> charactersByName;    // characters by lower case name.
+    private String renderedDescription;         // getDescription's text, built on first use.
+    private String renderedContents;            // lookAround's text, null until rendered again.
 
     /**
      * Create a room described "description". Initially, it has
      * no exits. "description" is something like "a kitchen" or
      * "an open court yard".
+     * @param id The room's id in its world.
+     * @param name The room's name, e.g. "kitchen".
      * @param description The room's description.
      */
-    public Room(String description) {
+    public Room(int id, String name, String description) {
+        this.id = id;
+        this.name = name;
         this.description = description;
         exits = new HashMap<>();
-        items = new HashMap<>();
+        items = NO_ITEMS;
+        itemAmounts = NO_AMOUNTS;
         characters = new ArrayList<>();
+        charactersByName = new HashMap<>();
     }
 
     // ------ Accessor methods: ------
 
+    /**
+     * Returns the room's id in its world.
+     * @return the room's id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the room's name, as used by exits leading to it.
+     * @return the room's name.
+     */
+    public String getName() {
+        return name;
+    }
+
     /**
      * Return a description of the room in the form:
      *     You are in the kitchen.
+     * The description never changes, so it is only built once.
      * @return A description of this room
      */
     public String getDescription() {
-        return "You are " + description + ".\n";
+        if (renderedDescription == null) {
+            renderedDescription = "You are " + description + ".\n";
+        }
+        return renderedDescription;
     }
 
     /**
@@ -63,7 +100,8 @@ public class Room {
     }
 
     /**
-     * Returns all characters in the room.
+     * Returns all characters in the room. Characters must be
+     * added and removed through addCharacter and removeCharacter.
      * @return all characters in the room.
      */
     public ArrayList<NPC> getCharacters() {
@@ -71,21 +109,50 @@ public class Room {
     }
 
     /**
-     * Returns the items in the room.
-     * @return Items in the room in the form of a
-     * dictionary with the name as a key.
+     * Returns the amount of different items in the room.
+     * Items are iterated with getItem and getItemAmountAt:
+     *     for (int i = 0; i < room.getItemCount(); i++)
+     * @return the amount of different items in the room.
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Returns an item in the room. Items are sorted by id.
+     * @param index the index of the item, from 0 to getItemCount() - 1.
+     * @return the item at that index.
+     */
+    public Item getItem(int index) {
+        return items[index];
+    }
+
+    /**
+     * Returns the amount of an item in the room.
+     * @param index the index of the item, from 0 to getItemCount() - 1.
+     * @return the amount of the item at that index.
      */
-    public HashMap<Item, Integer> getItemsInRoom(){
-        return items;
+    public int getItemAmountAt(int index) {
+        return itemAmounts[index];
+    }
+
+    /**
+     * Returns whether or not a given item is in the room.
+     * @param item the item to look for.
+     * @return whether or not the item is in the room.
+     */
+    public boolean containsItem(Item item) {
+        return indexOf(item) >= 0;
     }
 
     /**
      * Returns the amount of a given item in the room.
      * @param item the item in the room.
-     * @return the amount of a given item in the room.
+     * @return the amount of a given item in the room, 0 if it is not in the room.
      */
     public int getItemAmount(Item item) {
-        return items.get(item);
+        int index = indexOf(item);
+        return index < 0 ? 0 : itemAmounts[index];
     }
 
     // ------ mutator methods: ------
@@ -106,7 +173,11 @@ public class Room {
      * @param newAmount new amount to set.
      */
     public void setItemAmount(Item item, int newAmount) {
-        items.replace(item, newAmount);
+        int index = indexOf(item);
+        if (index >= 0 && itemAmounts[index] != newAmount) {
+            itemAmounts[index] = newAmount;
+            renderedContents = null;
+        }
     }
 
     // ------ room mechanics: ------
@@ -117,7 +188,25 @@ public class Room {
      * @param amount The amount of this item to add to the room.
      */
     public void addItem(Item item, int amount){
-        items.put(item, amount);
+        int index = indexOf(item);
+        if (index >= 0) {
+            setItemAmount(item, amount);
+            return;
+        }
+
+        //Insert the item where it keeps the items sorted by id
+        index = -(index + 1);
+        if (itemCount == items.length) {
+            int capacity = Math.max(2, itemCount * 2);
+            items = Arrays.copyOf(items, capacity);
+            itemAmounts = Arrays.copyOf(itemAmounts, capacity);
+        }
+        System.arraycopy(items, index, items, index + 1, itemCount - index);
+        System.arraycopy(itemAmounts, index, itemAmounts, index + 1, itemCount - index);
+        items[index] = item;
+        itemAmounts[index] = amount;
+        itemCount++;
+        renderedContents = null;
     }
 
     /**
@@ -125,7 +214,26 @@ public class Room {
      * @param item the item to remove
      */
     public void removeItem(Item item){
-        items.remove(item);
+        int index = indexOf(item);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(items, index + 1, items, index, itemCount - index - 1);
+        System.arraycopy(itemAmounts, index + 1, itemAmounts, index, itemCount - index - 1);
+        itemCount--;
+        items[itemCount] = null;
+        renderedContents = null;
+    }
+
+    /**
+     * Remove all items from the room.
+     */
+    public void removeAllItems() {
+        for (int i = 0; i < itemCount; i++) {
+            items[i] = null;
+        }
+        itemCount = 0;
+        renderedContents = null;
     }
 
     /**
@@ -134,6 +242,8 @@ public class Room {
      */
     public void addCharacter(NPC character) {
         characters.add(character);
+        charactersByName.putIfAbsent(character.getLowerCaseName(), character);
+        renderedContents = null;
     }
 
     /**
@@ -141,52 +251,148 @@ public class Room {
      * @param character NPC to remove from the room.
      */
     public void removeCharacter(NPC character) {
-        characters.remove(character);
+        if (!characters.remove(character)) {
+            return;
+        }
+        renderedContents = null;
+
+        //Another NPC with the same name may still be in the room
+        if (charactersByName.get(character.getLowerCaseName()) == character) {
+            charactersByName.remove(character.getLowerCaseName());
+            for (NPC other : characters) {
+                if (other.getLowerCaseName().equals(character.getLowerCaseName())) {
+                    charactersByName.put(other.getLowerCaseName(), other);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove every NPC leaving the room at once, keeping the others
+     * in order. Unlike calling removeCharacter for each of them, this
+     * takes a single pass however many NPCs are in the room.
+     * @param leaving tells whether an NPC leaves the room.
+     */
+    public void removeCharacters(Predicate<NPC> leaving) {
+        int kept = 0;
+        boolean indexChanged = false;
+        for (int i = 0; i < characters.size(); i++) {
+            NPC character = characters.get(i);
+            if (!leaving.test(character)) {
+                characters.set(kept++, character);
+            } else if (charactersByName.get(character.getLowerCaseName()) == character) {
+                charactersByName.remove(character.getLowerCaseName());
+                indexChanged = true;
+            }
+        }
+        if (kept == characters.size()) {
+            return;
+        }
+        characters.subList(kept, characters.size()).clear();
+        renderedContents = null;
+
+        //Other NPCs with the same names as those who left may still be in the room
+        if (indexChanged) {
+            for (int i = 0; i < characters.size(); i++) {
+                charactersByName.putIfAbsent(characters.get(i).getLowerCaseName(), characters.get(i));
+            }
+        }
+    }
+
+    /**
+     * Remove all NPCs from the room.
+     */
+    public void removeAllCharacters() {
+        characters.clear();
+        charactersByName.clear();
+        renderedContents = null;
     }
 
     /**
      * Returns the NPC object of a character
      * in the room given his name.
-     * @param characterName the name of the NPC.
-     * @return the NPC object.
+     * @param characterName the name of the NPC in lower case.
+     * @return the NPC object, or null if he/she is not in the room.
      */
     public NPC characterInRoom(String characterName) {
-        for (NPC character : characters) {
-            if (character.getName().toLowerCase().equals(characterName)) {
-                return character;
-            }
-        }
-        return null;
+        return charactersByName.get(characterName);
     }
 
     /**
      * Returns a string containing the characters and items in the room.
+     * The text is kept until characters or items enter or leave the room,
+     * or an item's amount changes.
      * @return the characters and items in the room as a string.
      */
     public String lookAround() {
-        String output = "";
+        if (renderedContents == null) {
+            StringBuilder output = new StringBuilder();
+            renderContents(output);
+            renderedContents = output.toString();
+        }
+        return renderedContents;
+    }
+
+    /**
+     * Appends the characters and items in the room to an output.
+     * @param output the output to append to, which can be reused between calls.
+     */
+    public void lookAround(StringBuilder output) {
+        output.append(lookAround());
+    }
+
+    // ------ private methods: ------
+
+    /**
+     * Writes the characters and items in the room to an output.
+     * @param output the output to append to.
+     */
+    private void renderContents(StringBuilder output) {
         // Show characters in the room
         if (characters.size() == 1) {
-            output += (characters.get(0) + " is in the room.\n");
+            output.append(characters.get(0).getName()).append(" is in the room.\n");
         } else if (characters.size()>1) {
-            output += (characters.get(0));
+            output.append(characters.get(0).getName());
             for (int i = 1; i<characters.size(); i++) {
-                output += (", " + characters.get(i));
+                output.append(", ").append(characters.get(i).getName());
             }
-            output += " are in the room.\n";
+            output.append(" are in the room.\n");
         } else {
-            output += "You are alone in the room.\n";
+            output.append("You are alone in the room.\n");
         }
 
         // Show objects in the room
-        if (items.size() == 0) {
-            output += "There are no items you can take in this room.\n";
+        if (itemCount == 0) {
+            output.append("There are no items you can take in this room.\n");
         } else {
-            output += "You see: ";
-            for (Item item : items.keySet()) {
-                output += (items.get(item)+" "+item.getName()+"\n");
+            output.append("You see: ");
+            for (int i = 0; i < itemCount; i++) {
+                output.append(itemAmounts[i]).append(' ').append(items[i].getName()).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Finds an item in the room with a binary search on the item ids.
+     * @param item the item to look for.
+     * @return the item's index, or -(insertion point + 1) if it is not in the room.
+     */
+    private int indexOf(Item item) {
+        int id = item.getId();
+        int low = 0;
+        int high = itemCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleId = items[middle].getId();
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
             }
         }
-        return output;
+        return -(low + 1);
     }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A RoomActor owns a room of an ActorWorld: its items, its NPCs and the
+ * players in it. Nothing else ever reads or changes them.
+ *
+ * Whatever is to be done with the room is sent to the actor as a message
+ * and queued in its mailbox. The actor processes its messages one at a
+ * time, in the order they were sent, on a thread of the world's executor.
+ * An actor with an empty mailbox holds no thread, so a world can have as
+ * many actors as rooms.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class RoomActor {
+    public static final int BATCH_SIZE = 64;
+
+    private Room room;
+    private Executor executor;
+    private ConcurrentLinkedQueue<Runnable> mailbox;
+    private AtomicBoolean scheduled;    // whether the actor is waiting for or holding a thread.
+    private ArrayList<SharedPlayer> occupants;
+    private GameRandom random;
+    private Runnable processor;
+
+    /**
+     * Creates the actor of a room.
+     * @param room the room owned by the actor.
+     * @param executor the executor processing the actor's messages.
+     * @param seed the seed of the actor's random generator.
+     */
+    public RoomActor(Room room, Executor executor, long seed) {
+        this.room = room;
+        this.executor = executor;
+        mailbox = new ConcurrentLinkedQueue<>();
+        scheduled = new AtomicBoolean();
+        occupants = new ArrayList<>();
+        random = new GameRandom(seed);
+        processor = this::processMessages;
+    }
+
+    // ------ accessor methods: ------
+    // Except for getRoom, these may only be called by the actor's messages.
+
+    /**
+     * Returns the room owned by the actor.
+     * @return the actor's room.
+     */
+    public Room getRoom() {
+        return room;
+    }
+
+    /**
+     * Returns the players in the actor's room.
+     * @return the players in the room.
+     */
+    public ArrayList<SharedPlayer> getOccupants() {
+        return occupants;
+    }
+
+    /**
+     * Returns the random generator of the actor, e.g. for NPCs picking what to say.
+     * @return the actor's random generator.
+     */
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    // ------ messages: ------
+
+    /**
+     * Sends a message to the actor. The message runs after every message
+     * sent before it, and never at the same time as another of the actor's messages.
+     * @param message the message to run.
+     */
+    public void tell(Runnable message) {
+        mailbox.offer(message);
+        schedule();
+    }
+
+    /**
+     * Hands the actor to the executor unless it is already waiting for
+     * or holding a thread.
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(processor);
+        }
+    }
+
+    /**
+     * Runs up to BATCH_SIZE messages, then gives the thread back so that
+     * a busy room does not keep the other rooms waiting.
+     */
+    private void processMessages() {
+        try {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Runnable message = mailbox.poll();
+                if (message == null) {
+                    break;
+                }
+                message.run();
+            }
+        } finally {
+            scheduled.set(false);
+
+            //Check if messages arrived after the last poll, whose sender saw the actor as scheduled
+            if (!mailbox.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * The RoomGraph class holds the exits of a world's rooms compiled into
+ * int arrays, in compressed sparse row form: the rooms every exit leads
+ * to are stored one room after the other in a single array, and a second
+ * array indexed by room id gives where each room's exits start.
+ *
+ * Exits keep the order of the room definitions, so exit i of a room is
+ * the definition's exit i. Walking the graph, e.g. for NPCs picking a
+ * random neighbor every turn, neither allocates nor hashes.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class RoomGraph {
+    private int[] exitOffsets;      // exits of room r are exitRooms[exitOffsets[r]..exitOffsets[r + 1]).
+    private int[] exitRooms;
+    private int maxExitCount;
+
+    /**
+     * Compiles the exits of a world's rooms.
+     * @param rooms the definitions of the rooms, each at the index of its id.
+     */
+    public RoomGraph(WorldTemplate.RoomDefinition[] rooms) {
+        exitOffsets = new int[rooms.length + 1];
+        for (WorldTemplate.RoomDefinition room : rooms) {
+            exitOffsets[room.getId() + 1] = room.getExitCount();
+        }
+        for (int room = 0; room < rooms.length; room++) {
+            maxExitCount = Math.max(maxExitCount, exitOffsets[room + 1]);
+            exitOffsets[room + 1] += exitOffsets[room];
+        }
+        exitRooms = new int[exitOffsets[rooms.length]];
+        for (WorldTemplate.RoomDefinition room : rooms) {
+            for (int exit = 0; exit < room.getExitCount(); exit++) {
+                exitRooms[exitOffsets[room.getId()] + exit] = room.getExitRoom(exit);
+            }
+        }
+    }
+
+    // ------ accessor methods: ------
+
+    /**
+     * Returns the amount of rooms in the graph.
+     * @return the amount of rooms.
+     */
+    public int getRoomCount() {
+        return exitOffsets.length - 1;
+    }
+
+    /**
+     * Returns the amount of exits of every room together.
+     * @return the amount of exits in the graph.
+     */
+    public int getTotalExitCount() {
+        return exitRooms.length;
+    }
+
+    /**
+     * Returns the highest amount of exits of a single room.
+     * @return the amount of exits of the room with the most exits.
+     */
+    public int getMaxExitCount() {
+        return maxExitCount;
+    }
+
+    /**
+     * Returns the amount of exits of a room.
+     * @param room the room's id.
+     * @return the amount of exits of the room.
+     */
+    public int getExitCount(int room) {
+        return exitOffsets[room + 1] - exitOffsets[room];
+    }
+
+    /**
+     * Returns the room an exit of a room leads to.
+     * @param room the room's id.
+     * @param exit the index of the exit, from 0 to getExitCount(room) - 1.
+     * @return the id of the room the exit leads to.
+     */
+    public int getExitRoom(int room, int exit) {
+        return exitRooms[exitOffsets[room] + exit];
+    }
+
+    /**
+     * Returns where the exits of a room start among the exits of every room.
+     * The exits of a room are getFirstExit(room) to getFirstExit(room + 1) - 1.
+     * @param room the room's id, up to getRoomCount() included.
+     * @return the graph-wide index of the room's first exit.
+     */
+    public int getFirstExit(int room) {
+        return exitOffsets[room];
+    }
+
+    /**
+     * Returns the room an exit leads to given its graph-wide index.
+     * @param exit the graph-wide index of the exit, from 0 to getTotalExitCount() - 1.
+     * @return the id of the room the exit leads to.
+     */
+    public int getTarget(int exit) {
+        return exitRooms[exit];
+    }
+
+    /**
+     * Picks one of a room's exits at random.
+     * @param room the room's id.
+     * @param rand the random generator to pick with.
+     * @return the id of the room the picked exit leads to,
+     *         or the room itself if it has no exit.
+     */
+    public int randomNeighbor(int room, GameRandom rand) {
+        int first = exitOffsets[room];
+        int count = exitOffsets[room + 1] - first;
+        return count == 0 ? room : exitRooms[first + rand.nextInt(count)];
+    }
+}
@@ -0,0 +1,480 @@
+import java.util.Arrays;
+
+/**
+ * The RoomRoutes class finds the shortest way between two rooms of a world,
+ * following the rooms' exits.
+ *
+ * Routes follow the world's RoomGraph. Worlds of up to
+ * ALL_PAIRS_LIMIT rooms also get a table giving, for every pair of
+ * rooms, the exit to take next, so routes are read without searching. Larger
+ * worlds are searched with A*, guided by the distances from and to a few
+ * landmark rooms computed when the routes are built: the triangle inequality
+ * turns them into a lower bound of the distance left, which keeps searches
+ * close to the shortest route instead of flooding the map.
+ *
+ * Routes never pass through the avoided room, e.g. the teleporter room,
+ * although they can start or end in it. Routes are immutable and shared by
+ * every game of a world; the state of a search lives in a Search, which
+ * must only be used by one thread at a time.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class RoomRoutes {
+    public static final int ALL_PAIRS_LIMIT = 1024;
+    private static final int LANDMARKS = 8;
+    private static final char NO_EXIT = Character.MAX_VALUE;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private RoomGraph graph;
+    private int roomCount;
+    private int avoidedRoom;
+    private char[] nextExits;       // exit to take from room f towards room t at f * roomCount + t, null for large worlds.
+    private int[][] landmarkFrom;   // landmarkFrom[l][r] is the distance from landmark l to room r.
+    private int[][] landmarkTo;     // landmarkTo[l][r] is the distance from room r to landmark l.
+
+    /**
+     * Compiles the routes of a world's rooms.
+     * @param graph the exits of the world's rooms.
+     * @param avoidedRoom the id of the room routes never pass through, or -1 if there is none.
+     */
+    public RoomRoutes(RoomGraph graph, int avoidedRoom) {
+        this.graph = graph;
+        this.avoidedRoom = avoidedRoom;
+        roomCount = graph.getRoomCount();
+
+        int[] exitSources = new int[graph.getTotalExitCount()];
+        for (int room = 0; room < roomCount; room++) {
+            Arrays.fill(exitSources, graph.getFirstExit(room), graph.getFirstExit(room + 1), room);
+        }
+
+        //Small worlds get every route, larger ones only what guides the searches
+        if (roomCount <= ALL_PAIRS_LIMIT && graph.getMaxExitCount() < NO_EXIT) {
+            compileNextExits(exitSources);
+        } else {
+            compileLandmarks(exitSources);
+        }
+    }
+
+    // ------ accessor methods: ------
+
+    /**
+     * Returns the amount of rooms in the world.
+     * @return the amount of rooms.
+     */
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * Returns the id of the room routes never pass through.
+     * @return the id of the avoided room, or -1 if there is none.
+     */
+    public int getAvoidedRoom() {
+        return avoidedRoom;
+    }
+
+    /**
+     * Returns whether or not every route was computed in advance.
+     * @return true if routes are read from a table, false if they are searched.
+     */
+    public boolean hasAllRoutes() {
+        return nextExits != null;
+    }
+
+    /**
+     * Returns the exit to take from a room to get closer to another,
+     * e.g. for an NPC walking towards a given room.
+     * @param from the id of the room to start from.
+     * @param to the id of the room to get to.
+     * @param search the search state to use, unused if every route was computed in advance.
+     * @return the index of the exit in the starting room's definition,
+     *         or -1 if the rooms are the same or there is no route.
+     */
+    public int getNextExit(int from, int to, Search search) {
+        if (nextExits != null) {
+            char exit = nextExits[from * roomCount + to];
+            return exit == NO_EXIT ? -1 : exit;
+        }
+        return findRoute(from, to, search) > 0 ? search.getRouteExit(0) : -1;
+    }
+
+    /**
+     * Finds a shortest route between two rooms. The route's steps are then
+     * read from the search with getRouteExit and getRouteRoom.
+     * @param from the id of the room to start from.
+     * @param to the id of the room to get to.
+     * @param search the search state to use, holding the route afterwards.
+     * @return the amount of steps of the route, or -1 if there is no route.
+     */
+    public int findRoute(int from, int to, Search search) {
+        search.clearRoute();
+        if (from == to) {
+            return 0;
+        }
+        if (nextExits != null) {
+            for (int room = from; room != to; ) {
+                char exit = nextExits[room * roomCount + to];
+                if (exit == NO_EXIT) {
+                    search.clearRoute();
+                    return -1;
+                }
+                room = graph.getExitRoom(room, exit);
+                search.addStep(exit, room);
+            }
+            return search.routeLength;
+        }
+        return searchRoute(from, to, search);
+    }
+
+    // ------ private methods: ------
+
+    /**
+     * Fills the next exit table with one breadth first search per
+     * destination, walking the exits backwards from it.
+     * @param exitSources the id of the room each exit leaves from.
+     */
+    private void compileNextExits(int[] exitSources) {
+        int[] incomingOffsets = new int[roomCount + 1];
+        int[] incomingExits = reverseExits(incomingOffsets);
+        nextExits = new char[roomCount * roomCount];
+        Arrays.fill(nextExits, NO_EXIT);
+
+        int[] queue = new int[roomCount];
+        boolean[] reached = new boolean[roomCount];
+        for (int to = 0; to < roomCount; to++) {
+            Arrays.fill(reached, false);
+            reached[to] = true;
+            queue[0] = to;
+            int queueEnd = 1;
+            for (int next = 0; next < queueEnd; next++) {
+                int room = queue[next];
+                if (room == avoidedRoom && room != to) {
+                    continue;
+                }
+                for (int edge = incomingOffsets[room]; edge < incomingOffsets[room + 1]; edge++) {
+                    int exit = incomingExits[edge];
+                    int source = exitSources[exit];
+                    if (!reached[source]) {
+                        reached[source] = true;
+                        nextExits[source * roomCount + to] = (char) (exit - graph.getFirstExit(source));
+                        queue[queueEnd++] = source;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Picks the landmarks, each as far as possible from the ones before it,
+     * and stores the distances from and to each of them.
+     * @param exitSources the id of the room each exit leaves from.
+     */
+    private void compileLandmarks(int[] exitSources) {
+        int[] incomingOffsets = new int[roomCount + 1];
+        int[] incomingExits = reverseExits(incomingOffsets);
+        int landmarkCount = Math.min(LANDMARKS, roomCount);
+        landmarkFrom = new int[landmarkCount][];
+        landmarkTo = new int[landmarkCount][];
+
+        int[] queue = new int[roomCount];
+        int[] closest = new int[roomCount];     // distance from the closest landmark so far.
+        Arrays.fill(closest, UNREACHABLE);
+        int landmark = 0;
+        for (int l = 0; l < landmarkCount; l++) {
+            landmarkFrom[l] = distances(landmark, null, null, null, queue);
+            landmarkTo[l] = distances(landmark, incomingOffsets, incomingExits, exitSources, queue);
+
+            //Rooms no landmark reaches are picked first, then the farthest ones
+            int farthest = 0;
+            for (int room = 0; room < roomCount; room++) {
+                closest[room] = Math.min(closest[room], landmarkFrom[l][room]);
+                if (closest[room] > closest[farthest]) {
+                    farthest = room;
+                }
+            }
+            landmark = farthest;
+        }
+    }
+
+    /**
+     * Computes the distances from a room with a breadth first search over every exit.
+     * @param start the id of the room to start from.
+     * @param incomingOffsets where the exits leading to each room start,
+     *                        null to walk the exits forwards.
+     * @param incomingExits the exits grouped by the room they lead to.
+     * @param exitSources the id of the room each exit leaves from.
+     * @param queue an array of roomCount ints used as the search's queue.
+     * @return the distance of each room, UNREACHABLE if there is no way.
+     */
+    private int[] distances(int start, int[] incomingOffsets, int[] incomingExits, int[] exitSources, int[] queue) {
+        boolean backwards = incomingOffsets != null;
+        int[] distances = new int[roomCount];
+        Arrays.fill(distances, UNREACHABLE);
+        distances[start] = 0;
+        queue[0] = start;
+        int queueEnd = 1;
+        for (int next = 0; next < queueEnd; next++) {
+            int room = queue[next];
+            int first = backwards ? incomingOffsets[room] : graph.getFirstExit(room);
+            int last = backwards ? incomingOffsets[room + 1] : graph.getFirstExit(room + 1);
+            for (int edge = first; edge < last; edge++) {
+                int neighbor = backwards ? exitSources[incomingExits[edge]] : graph.getTarget(edge);
+                if (distances[neighbor] == UNREACHABLE) {
+                    distances[neighbor] = distances[room] + 1;
+                    queue[queueEnd++] = neighbor;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Groups the exits by the room they lead to.
+     * @param offsets filled with where the exits leading to each room start.
+     * @return the graph-wide indexes of the exits, grouped by the room they lead to.
+     */
+    private int[] reverseExits(int[] offsets) {
+        int exitCount = graph.getTotalExitCount();
+        for (int exit = 0; exit < exitCount; exit++) {
+            offsets[graph.getTarget(exit) + 1]++;
+        }
+        for (int room = 0; room < roomCount; room++) {
+            offsets[room + 1] += offsets[room];
+        }
+        int[] exits = new int[exitCount];
+        int[] filled = Arrays.copyOf(offsets, roomCount);
+        for (int exit = 0; exit < exitCount; exit++) {
+            exits[filled[graph.getTarget(exit)]++] = exit;
+        }
+        return exits;
+    }
+
+    /**
+     * Returns a lower bound of the distance between two rooms given by the landmarks.
+     * @param room the id of the room to start from.
+     * @param to the id of the room to get to.
+     * @return the lower bound, UNREACHABLE if a landmark proves there is no route.
+     */
+    private int estimate(int room, int to) {
+        int bound = 0;
+        for (int l = 0; l < landmarkFrom.length; l++) {
+            int[] from = landmarkFrom[l];
+            if (from[room] != UNREACHABLE) {
+                if (from[to] == UNREACHABLE) {
+                    return UNREACHABLE;
+                }
+                bound = Math.max(bound, from[to] - from[room]);
+            }
+            int[] toLandmark = landmarkTo[l];
+            if (toLandmark[to] != UNREACHABLE) {
+                if (toLandmark[room] == UNREACHABLE) {
+                    return UNREACHABLE;
+                }
+                bound = Math.max(bound, toLandmark[room] - toLandmark[to]);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Searches a shortest route with A* guided by the landmarks.
+     * @param from the id of the room to start from.
+     * @param to the id of the room to get to.
+     * @param search the search state to use.
+     * @return the amount of steps of the route, or -1 if there is no route.
+     */
+    private int searchRoute(int from, int to, Search search) {
+        int estimate = estimate(from, to);
+        if (estimate == UNREACHABLE) {
+            return -1;
+        }
+        search.begin(roomCount);
+        search.reach(from, 0, -1, -1);
+        search.push(from, 0, estimate);
+
+        while (search.heapSize > 0) {
+            int room = search.pop();
+            if (search.closed[room] == search.stamp) {
+                continue;
+            }
+            search.closed[room] = search.stamp;
+            if (room == to) {
+                return search.traceRoute(from, to, graph);
+            }
+            if (room == avoidedRoom && room != from) {
+                continue;
+            }
+
+            int steps = search.steps[room] + 1;
+            for (int exit = graph.getFirstExit(room); exit < graph.getFirstExit(room + 1); exit++) {
+                int neighbor = graph.getTarget(exit);
+                if (search.closed[neighbor] == search.stamp
+                        || (search.seen[neighbor] == search.stamp && search.steps[neighbor] <= steps)) {
+                    continue;
+                }
+                estimate = estimate(neighbor, to);
+                if (estimate != UNREACHABLE) {
+                    search.reach(neighbor, steps, room, exit);
+                    search.push(neighbor, steps, steps + estimate);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The Search class holds the state of route searches and the last route found,
+     * so that searching does not allocate once its arrays have grown to the world's size.
+     */
+    public static class Search {
+        private int stamp;
+        private int[] seen = new int[0];    // rooms whose stamp is the current one were reached.
+        private int[] closed = new int[0];  // rooms whose stamp is the current one are settled.
+        private int[] steps = new int[0];
+        private int[] parentRooms = new int[0];
+        private int[] parentExits = new int[0];
+        private int[] heapRooms = new int[16];
+        private long[] heapKeys = new long[16];
+        private int heapSize;
+        private int[] routeExits = new int[16];
+        private int[] routeRooms = new int[16];
+        private int routeLength;
+
+        /**
+         * Creates the state of searches, sized on first use.
+         */
+        public Search() {
+        }
+
+        /**
+         * Returns the amount of steps of the last route found.
+         * @return the length of the route.
+         */
+        public int getRouteLength() {
+            return routeLength;
+        }
+
+        /**
+         * Returns the exit taken at a step of the last route found.
+         * @param step the step, from 0 to getRouteLength() - 1.
+         * @return the index of the exit in the definition of the room the step leaves from.
+         */
+        public int getRouteExit(int step) {
+            return routeExits[step];
+        }
+
+        /**
+         * Returns the room reached at a step of the last route found.
+         * @param step the step, from 0 to getRouteLength() - 1.
+         * @return the id of the room reached.
+         */
+        public int getRouteRoom(int step) {
+            return routeRooms[step];
+        }
+
+        private void begin(int roomCount) {
+            if (seen.length < roomCount) {
+                seen = new int[roomCount];
+                closed = new int[roomCount];
+                steps = new int[roomCount];
+                parentRooms = new int[roomCount];
+                parentExits = new int[roomCount];
+                stamp = 0;
+            }
+
+            //Stamps tell this search's rooms apart without clearing the arrays
+            if (++stamp == 0) {
+                Arrays.fill(seen, 0);
+                Arrays.fill(closed, 0);
+                stamp = 1;
+            }
+            heapSize = 0;
+        }
+
+        private void reach(int room, int roomSteps, int parentRoom, int parentExit) {
+            seen[room] = stamp;
+            steps[room] = roomSteps;
+            parentRooms[room] = parentRoom;
+            parentExits[room] = parentExit;
+        }
+
+        /**
+         * Adds a room to the heap, ordered by estimated route length
+         * then by the most steps already taken.
+         */
+        private void push(int room, int roomSteps, int length) {
+            if (heapSize == heapRooms.length) {
+                heapRooms = Arrays.copyOf(heapRooms, heapSize * 2);
+                heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+            }
+            long key = ((long) length << 32) | (Integer.MAX_VALUE - roomSteps);
+            int index = heapSize++;
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heapKeys[parent] <= key) {
+                    break;
+                }
+                heapRooms[index] = heapRooms[parent];
+                heapKeys[index] = heapKeys[parent];
+                index = parent;
+            }
+            heapRooms[index] = room;
+            heapKeys[index] = key;
+        }
+
+        private int pop() {
+            int room = heapRooms[0];
+            int lastRoom = heapRooms[--heapSize];
+            long lastKey = heapKeys[heapSize];
+            int index = 0;
+            while (true) {
+                int child = index * 2 + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                    child++;
+                }
+                if (heapKeys[child] >= lastKey) {
+                    break;
+                }
+                heapRooms[index] = heapRooms[child];
+                heapKeys[index] = heapKeys[child];
+                index = child;
+            }
+            heapRooms[index] = lastRoom;
+            heapKeys[index] = lastKey;
+            return room;
+        }
+
+        private int traceRoute(int from, int to, RoomGraph graph) {
+            int length = steps[to];
+            if (routeExits.length < length) {
+                routeExits = new int[length];
+                routeRooms = new int[length];
+            }
+            for (int room = to, step = length - 1; room != from; room = parentRooms[room], step--) {
+                routeRooms[step] = room;
+                routeExits[step] = parentExits[room] - graph.getFirstExit(parentRooms[room]);
+            }
+            routeLength = length;
+            return length;
+        }
+
+        private void clearRoute() {
+            routeLength = 0;
+        }
+
+        private void addStep(int exit, int room) {
+            if (routeLength == routeExits.length) {
+                routeExits = Arrays.copyOf(routeExits, routeLength * 2);
+                routeRooms = Arrays.copyOf(routeRooms, routeLength * 2);
+            }
+            routeExits[routeLength] = exit;
+            routeRooms[routeLength] = room;
+            routeLength++;
+        }
+    }
+}
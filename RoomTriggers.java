@@ -0,0 +1,140 @@
+import java.util.Arrays;
+
+/**
+ * The RoomTriggers class indexes the active quests of a player
+ * waiting for him/her to enter a given room.
+ *
+ * Any number of quests can wait on the same room. Triggers are stored
+ * as pairs of room id and quest id in two int arrays, sorted by room
+ * then quest, so the quests waiting on a room are found with a binary
+ * search and fired in id order without allocating anything.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class RoomTriggers {
+    private static final int[] NONE = new int[0];
+
+    private int[] rooms;
+    private int[] quests;
+    private int size;
+
+    /**
+     * Creates an index without any trigger.
+     */
+    public RoomTriggers() {
+        rooms = NONE;
+        quests = NONE;
+    }
+
+    // ------ accessor methods: ------
+
+    /**
+     * Returns the amount of triggers.
+     * @return the amount of quests waiting on a room.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the room of a trigger. Triggers are sorted by room then quest.
+     * @param index the index of the trigger, from 0 to size() - 1.
+     * @return the id of the room the trigger waits on.
+     */
+    public int getRoom(int index) {
+        return rooms[index];
+    }
+
+    /**
+     * Returns the quest of a trigger.
+     * @param index the index of the trigger, from 0 to size() - 1.
+     * @return the id of the quest waiting on the trigger's room.
+     */
+    public int getQuest(int index) {
+        return quests[index];
+    }
+
+    /**
+     * Returns whether or not any quest waits on a room.
+     * @param room the room's id.
+     * @return whether or not entering the room fires a trigger.
+     */
+    public boolean hasTrigger(int room) {
+        int index = indexOf(room, 0);
+        return index < size && rooms[index] == room;
+    }
+
+    // ------ mutator methods: ------
+
+    /**
+     * Makes a quest wait on a room. Adding the same trigger twice has no effect.
+     * @param room the room's id.
+     * @param quest the quest's id.
+     */
+    public void add(int room, int quest) {
+        int index = indexOf(room, quest);
+        if (index < size && rooms[index] == room && quests[index] == quest) {
+            return;
+        }
+        if (size == rooms.length) {
+            int capacity = Math.max(4, size * 2);
+            rooms = Arrays.copyOf(rooms, capacity);
+            quests = Arrays.copyOf(quests, capacity);
+        }
+        System.arraycopy(rooms, index, rooms, index + 1, size - index);
+        System.arraycopy(quests, index, quests, index + 1, size - index);
+        rooms[index] = room;
+        quests[index] = quest;
+        size++;
+    }
+
+    /**
+     * Removes and returns the first quest waiting on a room.
+     * Entering a room fires its triggers with:
+     *     while ((quest = triggers.take(room)) != -1)
+     * @param room the room's id.
+     * @return the id of the quest with the lowest id waiting on the room, or -1 if none is.
+     */
+    public int take(int room) {
+        int index = indexOf(room, 0);
+        if (index == size || rooms[index] != room) {
+            return -1;
+        }
+        int quest = quests[index];
+        System.arraycopy(rooms, index + 1, rooms, index, size - index - 1);
+        System.arraycopy(quests, index + 1, quests, index, size - index - 1);
+        size--;
+        return quest;
+    }
+
+    /**
+     * Removes every trigger.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    // ------ private methods: ------
+
+    /**
+     * Finds where a trigger is, or would be inserted, with a binary search.
+     * @param room the room's id.
+     * @param quest the quest's id, 0 to find the first trigger of the room.
+     * @return the index of the first trigger not lower than (room, quest).
+     */
+    private int indexOf(int room, int quest) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (rooms[middle] < room || (rooms[middle] == room && quests[middle] < quest)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,113 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * The SaveGame class saves a game to a file and loads it back.
+ *
+ * A save file is a small versioned binary file: a header holding the
+ * format's magic number and version, the fingerprint of the world the
+ * game was played in and the game's seed, followed by the game's state
+ * as captured by GameState and a checksum of that state. Rooms, items,
+ * NPCs and quests are stored as ids, so a save file can only be loaded
+ * into the same world it was saved from.
+ *
+ * Save files are memory-mapped when loaded: the state is read straight
+ * from the mapped file without copying it first.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class SaveGame {
+    private static final int MAGIC = 0x424d5356;
+    private static final short VERSION = 3;
+    private static final int HEADER_SIZE = 4 + 2 + 8 + 8 + 4;
+    private static final int CHECKSUM_SIZE = 8;
+
+    /**
+     * Saves a game. The file is replaced atomically,
+     * so a crash never leaves a half-written save behind.
+     * @param game the game to save.
+     * @param file the file to save the game to.
+     * @throws IOException if the game could not be saved.
+     */
+    public static void save(Game game, Path file) throws IOException {
+        byte[] state = GameState.capture(game);
+        CRC32 checksum = new CRC32();
+        checksum.update(state);
+
+        ByteBuffer save = ByteBuffer.allocate(HEADER_SIZE + state.length + CHECKSUM_SIZE);
+        save.putInt(MAGIC).putShort(VERSION).putLong(game.getTemplate().getFingerprint())
+                .putLong(game.getSeed()).putInt(state.length)
+                .put(state).putLong(checksum.getValue()).flip();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (save.hasRemaining()) {
+                channel.write(save);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a saved game.
+     * @param file the file the game was saved to.
+     * @param setup the components of a new game, set up from the world the game was saved from.
+     * @param prompt the policy answering quest requests in the loaded game.
+     * @return the loaded game.
+     * @throws IOException if the file could not be read, is not a save file,
+     *                     or was saved from another world.
+     */
+    public static Game load(Path file, GameSetup setup, PromptPolicy prompt) throws IOException {
+        MappedByteBuffer save;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE + CHECKSUM_SIZE) {
+                throw new IOException("Not a saved game: " + file);
+            }
+            save = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        //Check the header before touching the game
+        if (save.getInt() != MAGIC) {
+            throw new IOException("Not a saved game: " + file);
+        }
+        short version = save.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported save version " + version + ": " + file);
+        }
+        if (save.getLong() != setup.getTemplate().getFingerprint()) {
+            throw new IOException("The game was saved from another world: " + file);
+        }
+        long seed = save.getLong();
+        int length = save.getInt();
+        if (length < 0 || length != save.remaining() - CHECKSUM_SIZE) {
+            throw new IOException("Truncated saved game: " + file);
+        }
+
+        ByteBuffer state = save.slice();
+        state.limit(length);
+        CRC32 checksum = new CRC32();
+        checksum.update(state.duplicate());
+        if (save.getLong(HEADER_SIZE + length) != checksum.getValue()) {
+            throw new IOException("Damaged saved game: " + file);
+        }
+
+        Game game = new Game(setup, prompt, seed);
+        try {
+            GameState.restore(game, state);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Damaged saved game: " + file, e);
+        }
+        return game;
+    }
+}
@@ -0,0 +1,153 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ScriptRunner class plays the game without a GUI by running
+ * scripts of text commands against it, one command per line
+ * (see CommandInterpreter for the available commands).
+ *
+ * Usage: java ScriptRunner [-decline] [-quiet] [-repeat n] [-seed n] [-world file] [script...]
+ *
+ *     -decline   decline every quest instead of accepting it.
+ *     -quiet     do not print the output of the commands.
+ *     -repeat n  run the scripts n times, each time on a new game.
+ *     -seed n    seed the games' random generators, replaying the same games
+ *                on every run. A new seed is used for each game otherwise.
+ *     -world file  play in the world defined by a world file (see WorldFile)
+ *                instead of the standard world.
+ *
+ * Commands are read from standard input if no script is given.
+ * Once done, the amount of commands executed per second is printed.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class ScriptRunner {
+    private PromptPolicy prompt;
+    private boolean quiet;
+    private Long seed;
+    private WorldTemplate world;
+
+    /**
+     * Creates a script runner.
+     * @param prompt the policy answering quest requests.
+     * @param quiet whether or not the commands' output should be hidden.
+     * @param seed the seed of every game, or null to use a new seed for each game.
+     */
+    public ScriptRunner(PromptPolicy prompt, boolean quiet, Long seed) {
+        this(prompt, quiet, seed, StandardWorld.getTemplate());
+    }
+
+    /**
+     * Creates a script runner playing in a given world.
+     * @param prompt the policy answering quest requests.
+     * @param quiet whether or not the commands' output should be hidden.
+     * @param seed the seed of every game, or null to use a new seed for each game.
+     * @param world the world every game is played in.
+     */
+    public ScriptRunner(PromptPolicy prompt, boolean quiet, Long seed, WorldTemplate world) {
+        this.prompt = prompt;
+        this.quiet = quiet;
+        this.seed = seed;
+        this.world = world;
+    }
+
+    /**
+     * Runs the scripts given as arguments.
+     * @param args the options and scripts to run.
+     */
+    public static void main(String[] args) throws IOException {
+        PromptPolicy prompt = PromptPolicy.ALWAYS_ACCEPT;
+        boolean quiet = false;
+        int repeat = 1;
+        Long seed = null;
+        WorldTemplate world = StandardWorld.getTemplate();
+        List<String> commands = new ArrayList<>();
+        boolean scriptGiven = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-decline":
+                    prompt = PromptPolicy.ALWAYS_DECLINE;
+                    break;
+                case "-quiet":
+                    quiet = true;
+                    break;
+                case "-repeat":
+                    repeat = Integer.parseInt(args[++i]);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "-world":
+                    world = WorldFile.load(Paths.get(args[++i]));
+                    break;
+                default:
+                    commands.addAll(Files.readAllLines(Paths.get(args[i]), StandardCharsets.UTF_8));
+                    scriptGiven = true;
+            }
+        }
+        if (!scriptGiven) {
+            commands.addAll(readCommands(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))));
+        }
+
+        ScriptRunner runner = new ScriptRunner(prompt, quiet, seed, world);
+        long start = System.nanoTime();
+        long executed = 0;
+        for (int i = 0; i < repeat; i++) {
+            executed += runner.run(commands);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println(executed + " commands in " + (elapsed / 1000000) + " ms ("
+                + (long) (executed * 1e9 / Math.max(elapsed, 1)) + " commands/s)");
+    }
+
+    /**
+     * Runs a list of commands against a new game.
+     * @param commands the commands to run.
+     * @return the amount of commands executed.
+     */
+    public int run(List<String> commands) {
+        long gameSeed = (seed != null) ? seed : GameRandom.newSeed();
+        CommandInterpreter interpreter = new CommandInterpreter(new Game(new GameSetup(world), prompt, gameSeed));
+        int executed = 0;
+        if (!quiet) {
+            System.out.println("# seed " + gameSeed);
+        }
+        StringBuilder output = new StringBuilder();
+        for (String command : commands) {
+            output.setLength(0);
+            interpreter.execute(command, output);
+            if (!command.trim().isEmpty() && !command.trim().startsWith("#")) {
+                executed++;
+                if (!quiet) {
+                    System.out.println("> " + command.trim());
+                    System.out.println(output);
+                }
+            }
+        }
+        return executed;
+    }
+
+    /**
+     * Reads all commands from a reader.
+     * @param reader the reader to read the commands from.
+     * @return the commands read.
+     */
+    private static List<String> readCommands(BufferedReader reader) throws IOException {
+        List<String> commands = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            commands.add(line);
+        }
+        return commands;
+    }
+}
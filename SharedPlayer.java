@@ -0,0 +1,87 @@
+import java.util.ArrayList;
+
+/**
+ * A SharedPlayer is one of the players of a SharedWorld.
+ *
+ * It holds the player's name and the Player object keeping his/her
+ * position, path and inventory. The world is shared, the player is not:
+ * a SharedPlayer must only be sent commands by one thread at a time,
+ * e.g. the thread of the connection it belongs to.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class SharedPlayer {
+    private String name;
+    private Player player;
+    private boolean inWorld;
+
+    /**
+     * Creates a player. Players are created by SharedWorld.join.
+     * @param name the player's name.
+     * @param player the player's position and inventory.
+     */
+    public SharedPlayer(String name, Player player) {
+        this.name = name;
+        this.player = player;
+        inWorld = true;
+    }
+
+    /**
+     * Returns the player's name, as shown to the other players.
+     * @return the player's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the player's position, path and inventory.
+     * @return the player.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Returns whether or not the player is still in the world.
+     * @return false once the player has left the world.
+     */
+    public boolean isInWorld() {
+        return inWorld;
+    }
+
+    /**
+     * Sets whether or not the player is in the world.
+     * @param inWorld whether or not the player is in the world.
+     */
+    public void setInWorld(boolean inWorld) {
+        this.inWorld = inWorld;
+    }
+
+    /**
+     * Appends the names of the other players in the player's room, if any.
+     * @param occupants the players in the room, the player included.
+     * @param output the output to append the names to.
+     */
+    public void appendOthers(ArrayList<SharedPlayer> occupants, StringBuilder output) {
+        if (occupants.size() > 1) {
+            output.append("Also here:");
+            for (int i = 0; i < occupants.size(); i++) {
+                if (occupants.get(i) != this) {
+                    output.append(' ').append(occupants.get(i).getName());
+                }
+            }
+            output.append('\n');
+        }
+    }
+
+    /**
+     * Prints out the name of the player.
+     * @return the player's name.
+     */
+    public String toString() {
+        return name;
+    }
+}
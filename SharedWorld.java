@@ -0,0 +1,301 @@
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The SharedWorld class lets many players play in the same world at once,
+ * each on his/her own thread, where a Game has a single player.
+ *
+ * Every room is guarded by a lock taken from a striped array indexed by
+ * room id. Whatever a command reads or changes in a room (its items, its
+ * NPCs and the players in it) is only touched while holding that room's
+ * lock, so two players taking from the same stack never both get it.
+ * Worlds of up to MAX_STRIPES rooms get a lock per room and players in
+ * different rooms never wait for each other; larger worlds share each
+ * lock between rooms MAX_STRIPES ids apart. Moving between two rooms
+ * takes both locks in stripe order, so moves never deadlock.
+ *
+ * Players can move around, look, take, drop and inspect items. Quests and
+ * NPCs wandering around still need a Game, which has a single player.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class SharedWorld {
+    public static final int MAX_STRIPES = 1 << 16;
+
+    private WorldTemplate template;
+    private ArrayList<Room> rooms;
+    private Item[] items;
+    private ReentrantLock[] locks;
+    private int stripeMask;
+    private ArrayList<ArrayList<SharedPlayer>> occupants;   // players in each room, by room id.
+    private AtomicInteger playerCount;
+
+    /**
+     * Creates a world without any player.
+     * @param template the world to play in.
+     */
+    public SharedWorld(WorldTemplate template) {
+        this.template = template;
+        GameSetup setup = new GameSetup(template);
+        rooms = setup.getAllRooms();
+        items = new Item[template.getItemCount()];
+        for (Item item : setup.getAllItems().values()) {
+            items[item.getId()] = item;
+        }
+
+        int stripes = Integer.highestOneBit(Math.max(1, Math.min(rooms.size(), MAX_STRIPES)) * 2 - 1);
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        stripeMask = stripes - 1;
+        occupants = new ArrayList<>(rooms.size());
+        for (int i = 0; i < rooms.size(); i++) {
+            occupants.add(new ArrayList<>());
+        }
+        playerCount = new AtomicInteger();
+    }
+
+    // ------ accessor methods: ------
+
+    /**
+     * Returns the world's template.
+     * @return the world's template.
+     */
+    public WorldTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Returns the amount of players in the world.
+     * @return the amount of players who joined and did not leave.
+     */
+    public int getPlayerCount() {
+        return playerCount.get();
+    }
+
+    /**
+     * Returns the amount of locks guarding the rooms.
+     * @return the amount of lock stripes.
+     */
+    public int getStripeCount() {
+        return locks.length;
+    }
+
+    /**
+     * Returns the amount of an item in a room, read under the room's lock.
+     * @param room the room's id.
+     * @param item the item's id.
+     * @return the amount of the item in the room.
+     */
+    public int getItemAmount(int room, int item) {
+        ReentrantLock lock = lockFor(room);
+        lock.lock();
+        try {
+            return rooms.get(room).getItemAmount(items[item]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ------ players: ------
+
+    /**
+     * Adds a player to the world, in the world's starting room.
+     * @param name the player's name.
+     * @return the player, to send commands with.
+     */
+    public SharedPlayer join(String name) {
+        return join(name, template.getStartingRoom());
+    }
+
+    /**
+     * Adds a player to the world in a given room.
+     * @param name the player's name.
+     * @param start the id of the room the player starts in.
+     * @return the player, to send commands with.
+     */
+    public SharedPlayer join(String name, int start) {
+        SharedPlayer player = new SharedPlayer(name, new Player(rooms.get(start), template.getItemRegistry(), items));
+        ReentrantLock lock = lockFor(start);
+        lock.lock();
+        try {
+            occupants.get(start).add(player);
+        } finally {
+            lock.unlock();
+        }
+        playerCount.incrementAndGet();
+        return player;
+    }
+
+    /**
+     * Removes a player from the world. Items in the player's inventory leave with him/her.
+     * @param player the player leaving.
+     */
+    public void leave(SharedPlayer player) {
+        if (!player.isInWorld()) {
+            return;
+        }
+        int room = player.getPlayer().getCurrentRoom().getId();
+        ReentrantLock lock = lockFor(room);
+        lock.lock();
+        try {
+            occupants.get(room).remove(player);
+        } finally {
+            lock.unlock();
+        }
+        player.setInWorld(false);
+        playerCount.decrementAndGet();
+    }
+
+    // ------ implementations of user commands: ------
+
+    /**
+     * Moves a player to an adjacent room given the name of the next room.
+     * @param player the player moving.
+     * @param direction the name of the next room.
+     * @param output the output to append any message to.
+     */
+    public void goRoom(SharedPlayer player, String direction, StringBuilder output) {
+        Room from = player.getPlayer().getCurrentRoom();
+        Room to = from.getExit(direction);
+        if (to == null) {
+            output.append("There is no exit to ").append(direction).append(".\n");
+            return;
+        }
+        move(player, from, to);
+        player.getPlayer().changeRoom(to);
+    }
+
+    /**
+     * Moves a player back to the room he/she was in before.
+     * @param player the player moving.
+     * @param output the output to append any message to.
+     */
+    public void goBack(SharedPlayer player, StringBuilder output) {
+        ArrayList<Room> previousRooms = player.getPlayer().getPreviousRooms();
+        if (previousRooms.isEmpty()) {
+            output.append("There is no previous room.\n");
+            return;
+        }
+        move(player, player.getPlayer().getCurrentRoom(), previousRooms.get(previousRooms.size() - 1));
+        player.getPlayer().goBack(output);
+    }
+
+    /**
+     * Describes a player's room: its NPCs, its items and the other players in it.
+     * @param player the player looking around.
+     * @param output the output to append the description to.
+     */
+    public void look(SharedPlayer player, StringBuilder output) {
+        Room room = player.getPlayer().getCurrentRoom();
+        ReentrantLock lock = lockFor(room.getId());
+        lock.lock();
+        try {
+            output.append(room.getDescription());
+            room.lookAround(output);
+            player.appendOthers(occupants.get(room.getId()), output);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lets a player take an item from his/her room.
+     * @param player the player taking the item.
+     * @param itemName the item to take.
+     * @param output the output to append any message to.
+     */
+    public void takeItem(SharedPlayer player, String itemName, StringBuilder output) {
+        ReentrantLock lock = lockFor(player.getPlayer().getCurrentRoom().getId());
+        lock.lock();
+        try {
+            player.getPlayer().takeItem(itemName, output);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lets a player drop an item in his/her room.
+     * @param player the player dropping the item.
+     * @param itemName the item to drop.
+     * @param output the output to append any message to.
+     */
+    public void dropItem(SharedPlayer player, String itemName, StringBuilder output) {
+        ReentrantLock lock = lockFor(player.getPlayer().getCurrentRoom().getId());
+        lock.lock();
+        try {
+            player.getPlayer().dropItem(itemName, output);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lets a player inspect an item in his/her inventory.
+     * Only the player's own inventory is read, so no lock is needed.
+     * @param player the player inspecting the item.
+     * @param itemName the item to inspect.
+     * @param output the output to append the item's description to.
+     */
+    public void inspectItem(SharedPlayer player, String itemName, StringBuilder output) {
+        int id = template.getItemRegistry().getId(itemName);
+        if (id == -1 || !player.getPlayer().getInventory().contains(id)) {
+            output.append("You do not have any ").append(itemName).append(".\n");
+            return;
+        }
+        player.getPlayer().inspectItem(itemName, output);
+    }
+
+    /**
+     * Appends a player's inventory to an output.
+     * @param player the player whose inventory to display.
+     * @param output the output to append the inventory to.
+     */
+    public void displayInventory(SharedPlayer player, StringBuilder output) {
+        player.getPlayer().showInventory(output);
+    }
+
+    // ------ private methods: ------
+
+    /**
+     * Returns the lock guarding a room.
+     * @param room the room's id.
+     * @return the room's lock.
+     */
+    private ReentrantLock lockFor(int room) {
+        return locks[room & stripeMask];
+    }
+
+    /**
+     * Moves a player from a room's occupants to another's, holding both
+     * rooms' locks. The locks are always taken in the same order.
+     * @param player the player moving.
+     * @param from the room the player leaves.
+     * @param to the room the player enters.
+     */
+    private void move(SharedPlayer player, Room from, Room to) {
+        ReentrantLock first = lockFor(Math.min(from.getId() & stripeMask, to.getId() & stripeMask));
+        ReentrantLock second = lockFor(Math.max(from.getId() & stripeMask, to.getId() & stripeMask));
+        first.lock();
+        try {
+            if (second != first) {
+                second.lock();
+            }
+            try {
+                occupants.get(from.getId()).remove(player);
+                occupants.get(to.getId()).add(player);
+            } finally {
+                if (second != first) {
+                    second.unlock();
+                }
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The SharedWorldBenchmark class measures how the command throughput of
+ * a world shared by many players grows with the amount of players playing
+ * at once, each on his/her own thread. Both ways of sharing a world are
+ * measured: rooms guarded by locks (SharedWorld) and rooms owned by actors
+ * (ActorWorld).
+ *
+ * Three layouts are measured for each amount of players:
+ *     spread   every player stays around a room of his/her own,
+ *     skewed   half of the players pile into the bullpen,
+ *     bullpen  every player piles into the bullpen.
+ * Each player repeatedly takes the hotdogs of his/her room, drops them,
+ * looks around and walks to a neighboring room and back. Once a layout is
+ * measured, the hotdogs in the rooms are counted to check that none were
+ * duplicated or lost.
+ *
+ * Usage: java SharedWorldBenchmark [-rooms n] [-millis n] [players...]
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class SharedWorldBenchmark {
+    private static final String[] LAYOUTS = {"spread", "skewed", "bullpen"};
+    private static final int[] BULLPEN_PERCENTS = {0, 50, 100};
+
+    /**
+     * Runs the benchmark.
+     * @param args the benchmark options.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int rooms = 1000;
+        long millis = 1000;
+        List<Integer> playerCounts = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-rooms":
+                    rooms = Integer.parseInt(args[++i]);
+                    break;
+                case "-millis":
+                    millis = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    playerCounts.add(Integer.parseInt(args[i]));
+            }
+        }
+        if (playerCounts.isEmpty()) {
+            for (int players = 1; players <= Runtime.getRuntime().availableProcessors(); players *= 2) {
+                playerCounts.add(players);
+            }
+        }
+        WorldTemplate template = SyntheticSetup.createTemplate(rooms, 0, 42);
+
+        //Warm up the engine before measuring
+        run(new LockedPlayers(template), 1, 0, millis, null);
+        run(new ActorPlayers(template), 1, 0, millis, null);
+
+        System.out.printf("%-8s %-8s %8s %14s %14s %10s%n", "design", "layout", "players", "commands/s", "per player", "conserved");
+        for (int layout = 0; layout < LAYOUTS.length; layout++) {
+            for (int players : playerCounts) {
+                run(new LockedPlayers(template), players, BULLPEN_PERCENTS[layout], millis, LAYOUTS[layout]);
+                run(new ActorPlayers(template), players, BULLPEN_PERCENTS[layout], millis, LAYOUTS[layout]);
+            }
+        }
+    }
+
+    /**
+     * Measures one layout with a given amount of players and prints the results.
+     * @param world the world to play in.
+     * @param playerCount the amount of players.
+     * @param bullpenPercent the percentage of players in the bullpen.
+     * @param millis how long to measure for.
+     * @param layout the name of the layout to print, null not to print the results.
+     */
+    private static void run(Players world, int playerCount, int bullpenPercent, long millis, String layout)
+            throws InterruptedException {
+        WorldTemplate template = world.getTemplate();
+        int hotdog = template.getItemRegistry().getId("hotdog");
+        int bullpen = template.findRoom("bullpen");
+        int firstGenerated = template.findRoom("room 0");
+        long hotdogsBefore = countHotdogs(world, hotdog);
+
+        LongAdder commands = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread[] threads = new Thread[playerCount];
+        SharedPlayer[] players = new SharedPlayer[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+
+            //Spread players over the generated rooms with hotdogs, every fourth one
+            boolean inBullpen = i * 100 < bullpenPercent * playerCount || firstGenerated == -1;
+            int room = inBullpen ? bullpen : firstGenerated + (4 * i) % (template.getRoomCount() - firstGenerated);
+            SharedPlayer player = world.join("player" + i, room);
+            String exit = template.getRoom(room).getExitDirection(0);
+            players[i] = player;
+            threads[i] = new Thread(() -> {
+                StringBuilder output = new StringBuilder();
+                long executed = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (!stop.get()) {
+                    output.setLength(0);
+                    world.takeItem(player, "hotdog", output);
+                    world.dropItem(player, "hotdog", output);
+                    world.look(player, output);
+                    world.goRoom(player, exit, output);
+                    world.goBack(player, output);
+                    executed += 5;
+                }
+                commands.add(executed);
+            });
+            threads[i].start();
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        Thread.sleep(millis);
+        stop.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - began;
+
+        //Hotdogs still held by players are dropped before counting
+        StringBuilder output = new StringBuilder();
+        for (SharedPlayer player : players) {
+            if (player.getPlayer().getInventory().contains(hotdog)) {
+                world.dropItem(player, "hotdog", output);
+            }
+        }
+        boolean conserved = countHotdogs(world, hotdog) == hotdogsBefore;
+        if (layout == null) {
+            return;
+        }
+        double throughput = commands.sum() * 1e9 / elapsed;
+        System.out.printf("%-8s %-8s %8d %14.0f %14.0f %10s%n", world.getDesign(), layout, playerCount,
+                throughput, throughput / playerCount, conserved ? "yes" : "NO");
+    }
+
+    /**
+     * Counts the hotdogs in every room of a world.
+     * @param world the world.
+     * @param hotdog the id of hotdogs.
+     * @return the amount of hotdogs in the rooms.
+     */
+    private static long countHotdogs(Players world, int hotdog) {
+        long hotdogs = 0;
+        for (int room = 0; room < world.getTemplate().getRoomCount(); room++) {
+            hotdogs += world.getItemAmount(room, hotdog);
+        }
+        return hotdogs;
+    }
+
+    /**
+     * The commands sent by the benchmark's players, whichever way the world is shared.
+     */
+    private interface Players {
+        String getDesign();
+        WorldTemplate getTemplate();
+        int getItemAmount(int room, int item);
+        SharedPlayer join(String name, int room);
+        void goRoom(SharedPlayer player, String direction, StringBuilder output);
+        void goBack(SharedPlayer player, StringBuilder output);
+        void look(SharedPlayer player, StringBuilder output);
+        void takeItem(SharedPlayer player, String itemName, StringBuilder output);
+        void dropItem(SharedPlayer player, String itemName, StringBuilder output);
+    }
+
+    /**
+     * Players of a SharedWorld, whose rooms are guarded by locks.
+     */
+    private static class LockedPlayers implements Players {
+        private SharedWorld world;
+
+        private LockedPlayers(WorldTemplate template) {
+            world = new SharedWorld(template);
+        }
+
+        public String getDesign() {
+            return "locks";
+        }
+
+        public WorldTemplate getTemplate() {
+            return world.getTemplate();
+        }
+
+        public int getItemAmount(int room, int item) {
+            return world.getItemAmount(room, item);
+        }
+
+        public SharedPlayer join(String name, int room) {
+            return world.join(name, room);
+        }
+
+        public void goRoom(SharedPlayer player, String direction, StringBuilder output) {
+            world.goRoom(player, direction, output);
+        }
+
+        public void goBack(SharedPlayer player, StringBuilder output) {
+            world.goBack(player, output);
+        }
+
+        public void look(SharedPlayer player, StringBuilder output) {
+            world.look(player, output);
+        }
+
+        public void takeItem(SharedPlayer player, String itemName, StringBuilder output) {
+            world.takeItem(player, itemName, output);
+        }
+
+        public void dropItem(SharedPlayer player, String itemName, StringBuilder output) {
+            world.dropItem(player, itemName, output);
+        }
+    }
+
+    /**
+     * Players of an ActorWorld, whose rooms are owned by actors. Every
+     * command waits for its future, as a player's connection would.
+     */
+    private static class ActorPlayers implements Players {
+        private ActorWorld world;
+
+        private ActorPlayers(WorldTemplate template) {
+            world = new ActorWorld(template);
+        }
+
+        public String getDesign() {
+            return "actors";
+        }
+
+        public WorldTemplate getTemplate() {
+            return world.getTemplate();
+        }
+
+        public int getItemAmount(int room, int item) {
+            return world.getItemAmount(room, item).join();
+        }
+
+        public SharedPlayer join(String name, int room) {
+            return world.join(name, room);
+        }
+
+        public void goRoom(SharedPlayer player, String direction, StringBuilder output) {
+            world.goRoom(player, direction, output).join();
+        }
+
+        public void goBack(SharedPlayer player, StringBuilder output) {
+            world.goBack(player, output).join();
+        }
+
+        public void look(SharedPlayer player, StringBuilder output) {
+            world.look(player, output).join();
+        }
+
+        public void takeItem(SharedPlayer player, String itemName, StringBuilder output) {
+            world.takeItem(player, itemName, output).join();
+        }
+
+        public void dropItem(SharedPlayer player, String itemName, StringBuilder output) {
+            world.dropItem(player, itemName, output).join();
+        }
+    }
+}
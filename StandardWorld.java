@@ -0,0 +1,159 @@
+/**
+ * The StandardWorld class describes the Brooklyn Murder world:
+ * its items, rooms, NPCs and quests. The template is built once
+ * and shared by every game played in that world.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class StandardWorld {
+    private static final WorldTemplate TEMPLATE = builder().build();
+
+    /**
+     * Returns the template of the Brooklyn Murder world.
+     * @return the shared template of the Brooklyn Murder world.
+     */
+    public static WorldTemplate getTemplate() {
+        return TEMPLATE;
+    }
+
+    /**
+     * Returns a builder already containing the whole Brooklyn Murder
+     * world, allowing larger worlds to be built on top of it.
+     * @return a builder containing the Brooklyn Murder world.
+     */
+    public static WorldTemplate.Builder builder() {
+        WorldTemplate.Builder world = new WorldTemplate.Builder();
+        addItems(world);
+        addRooms(world);
+        addCharacters(world);
+        addQuests(world);
+        return world;
+    }
+
+    /**
+     * Adds all items of the game.
+     * @param world the world to add them to.
+     */
+    private static void addItems(WorldTemplate.Builder world) {
+        world.addItem("letter", "letters", "Contains information on Holt you don't want to know about.", 1, true);
+        world.addItem("hotdog", "hotdogs", "Can feed a hungry person.", 2, true);
+        world.addItem("toycar", "toycars", "Most likely belongs to a child or infant.", 1, true);
+        world.addItem("binder", "binders", "Contains boot camp images", 1, true);
+        world.addItem("yoghurt", "yoghurts", "Honey flavored greek yoghurt; delicious!", 1, true);
+        world.addItem("axe", "axes", "", 1, false);
+    }
+
+    /**
+     * Adds all rooms of the game and links them together.
+     * @param world the world to add them to.
+     */
+    private static void addRooms(WorldTemplate.Builder world) {
+        int street = world.addRoom("street", "in the street. You see a stand that seems to sell delicious hot dogs");
+        int bullpen = world.addRoom("bullpen", "in the bullpen. There are food leftovers on Hitchcock's and Scully's desks, a binder on Amy's desk and an axe on Rosa's");
+        int breakRoom = world.addRoom("break room", "in the break room. The worn out sofas and old tables make it look really comfortable");
+        int interrogationRoom = world.addRoom("interrogation room", "in the interrogation room. A corpse lies in plain sight.\nBeside her you see a yoghurt, a toycar and a binder.");
+        int evidenceRoom = world.addRoom("evidence room", "in the evidence room. Please no public display of affection in here; you could kill a Captain");
+        int kitchen = world.addRoom("kitchen", "in the kitchen. You can microwave your breakfast here");
+        int holtOffice = world.addRoom("holt's office", "in Captain Holt's office. Captain Holt might have something for you");
+        int precinctLobby = world.addRoom("precinct lobby", "in Brooklyn's 99th precinct. You are now in the lobby");
+        int copyRoom = world.addRoom("copy room", "in the copy room. Terry just fixed the japanese high-tech printer");
+        int holdingCell = world.addRoom("holding cell", "in the holding cell amongst locked up perpetrators");
+
+        world.addExit(bullpen, "evidence room", evidenceRoom);
+        world.addExit(bullpen, "copy room", copyRoom);
+        world.addExit(bullpen, "holt's office", holtOffice);
+        world.addExit(bullpen, "break room", breakRoom);
+        world.addExit(bullpen, "holding cell", holdingCell);
+        world.addExit(bullpen, "precinct lobby", precinctLobby);
+        world.addExit(bullpen, "kitchen", kitchen);
+        world.addExit(bullpen, "interrogation room", interrogationRoom);
+        world.addRoomItem(bullpen, world.itemId("axe"), 1);
+
+        world.addExit(copyRoom, "bullpen", bullpen);
+
+        world.addExit(holtOffice, "bullpen", bullpen);
+
+        world.addExit(breakRoom, "bullpen", bullpen);
+
+        world.addExit(holdingCell, "bullpen", bullpen);
+
+        world.addExit(kitchen, "bullpen", bullpen);
+
+        world.addExit(interrogationRoom, "bullpen", bullpen);
+        world.addRoomItem(interrogationRoom, world.itemId("binder"), 1);
+        world.addRoomItem(interrogationRoom, world.itemId("yoghurt"), 1);
+        world.addRoomItem(interrogationRoom, world.itemId("toycar"), 1);
+
+        world.addExit(evidenceRoom, "bullpen", bullpen);
+
+        world.addExit(street, "precinct lobby", precinctLobby);
+        world.addRoomItem(street, world.itemId("hotdog"), 6);
+
+        world.addExit(precinctLobby, "street", street);
+        world.addExit(precinctLobby, "bullpen", bullpen);
+
+        world.setStartingRoom(street);
+        world.setTeleporterRoom(holdingCell);
+    }
+
+    /**
+     * Adds all NPCs of the game.
+     * @param world the world to add them to.
+     */
+    private static void addCharacters(WorldTemplate.Builder world) {
+        world.addCharacter("Holt", world.roomId("holt's office"), "Actually, I was calling you a goat. You goat./Coat, coat, jacket, coat. Is this a police precinct or a Turkish bazaar?/You grackle./Wuntch just got served./Madeline Wuntch. Good to see you but,\nif you're here, who's guarding Hades?/I have an extra graphing calculator I could leave in there for the children.", false);
+        world.addCharacter("Amy", world.roomId("evidence room"), "This one says Die Pig. And worst of all, they didn't put the comma between die and pig./It'll cheer the captain up. He'll be over the moon. He may even lean back in his chair and nod slightly./Sergeant, I'm learning so much. We both have blue hand towels. We have the same microwave. And, once I buy coasters made out of geodes, we'll both have those./Hello, friends. Who here would like to see a presentation of crime statistics as a function of demographics and time?/Who wants to see a picture of a dead body?", false);
+        world.addCharacter("Charles", world.roomId("bullpen"), "What about me? What if something happens to Jake, and he never gets to meet my baby?\nI don't want to hang out with some stupid baby who's never met Jake./The guy was from Canada, said it was probably his fault for getting robbed, and apologized for wasting my time./My Nana always said, 'Bad news first because the good news is probably a lie.'\nFun fact: she made me cry a lot./He should already think you're great. Like with my dad.\nHe doesn't need me to prove to him that Jake Peralta's the best cop in the precinct, he knows it.", false);
+        world.addCharacter("Gina", world.roomId("break room"), "Hi, Gina Linetti. The human form of the 100 emoji./My mother cried on the day I was born because she knew she would never be better than me./I feel like I’m the Paris of people./As everyone knows, my spirit animal is nature’s greatest predator, the wolf./What? The only thing I’m not good at is modesty, because I’m great at it./I’d describe the workflow today as dismal with a tiny dash of pathetic.", true);
+        world.addCharacter("Hitchcock", world.roomId("kitchen"), "No, I think it's a pizza./Finally warming up breakfast./That's it I'm licking all these bagels./Every Sunday after church, Scully and I have dinner together at Wing Sluts.\nLast night Scully said he was sick so I went by myself.\nGuess who was there healthy as a clam.\nMr liar and his new tart Cyndi Schatz./Not to brag but Scully and I have a combined total of 14 arrests./We're a package deal everyone knows that.", false);
+        world.addCharacter("Jake", world.roomId("bullpen"), "'I'm so confused I don't know what's happening right now': title of your sex tape./Great, I'd like your $8-Est bottle of wine, please./I swear, these perps are so stupid. I'd make a better criminal than any of 'em./Yeah. Okay, here it goes. Ames, I love you. I love how smart you are.\nI love how beautiful you are. I love your face, and I love your butt.\nI should've written this down first.", false);
+        world.addCharacter("Officer", world.roomId("interrogation room"), "Reporting for duty./I haven't found any new evidence./Maybe Chief Wuntch has more information.", false);
+        world.addCharacter("Rosa", world.roomId("evidence room"), "What kind of woman doesn't have an axe?/I don't ask people out. I just tell them where w're going./I didn’t understand why people care so much about dumb dogs until I got a dumb dog myself./I hate small talk. Let’s drink in silence./You can hate people and still think they’re hot.", false);
+        world.addCharacter("Scully", world.roomId("kitchen"), "That's because it's all wart./I think it's a cookie./What's the time? 10am? No wonder I'm starving./We are turnips./Chips don't count. My doctor said they had zero nutritional value.", false);
+        world.addCharacter("Terry", world.roomId("copy room"), "I’m playing Kwazy Cupcakes, I’m hydrated as hell, and I’m listening to Sheryl Crow. I’ve got my own party going on./I feel like a proud mama hen whose baby chicks have learned to fly!/We’re having a fancy tea party. I am the king of Origami napkins./I care about my friends. Now eat your carrots, or I’ll rip your tiny head off./Correction, you bring Vacation Terry, and he is no man's boss. When the slippers are filled, Terry is chilled./I'm a detective. I will detect.", false);
+        world.addCharacter("Wuntch", world.roomId("interrogation room"), "Raymond, I don't think we need to say anything./Raymond, always a pleasure to call on a vanquished foe./How do I know you're not wearing a wire?\nI need to pat you down./I'm surprised you didn't see what was going on in there./Hello Raymond, you're looking old and sickly./I love my life", false);
+
+        world.setGuide(world.characterId("Gina"));
+    }
+
+    /**
+     * Adds all quests of the game.
+     * @param world the world to add them to.
+     */
+    private static void addQuests(WorldTemplate.Builder world) {
+        int holt0 = world.addQuest("holt0", world.characterId("Holt"), "Solving the case", "You need to find out who abducted your friends and murdered the witness.", "Hello there. I am Captain Holt and I am in charge of the case relating to your friends' abduction. Would you like to help me with the case? Talk to me again if you accept to get started.", "Have you found the culprit?", "Congratulations! You found the murderer!\nOur precinct is now safer than ever.", "holt1/gina0", "", 0);
+        world.setQuestTasks(holt0, 1);
+
+        int holt1 = world.addQuest("holt1", world.characterId("Holt"), "Go to the murder Scene", "Investigate the crime scene by going to the interrogation room.", "The murder took place in the interrogation room. You should head there to start your interrogation.", "Have you gone to the interrogation room already?", "You should start your investigation here on the crime scene. Make sure to look around for clues and note everything down.", "", "holt0/wuntch0/jake0/scully0", 1);
+        world.setRequestedRoom(holt1, world.roomId("interrogation room"));
+
+        int amy0 = world.addQuest("amy0", world.characterId("Amy"), "Find Amy's binder", "Amy has lost her binder and wants you to find it for her.", "Hello, my name is Amy. Would you be so kind as to do me a favor? While cleaning as usual my bootcamp binders, one of them disappeared from my desk. It holds so many dear memories. Could you please find it for me.", "Have you found my binder yet?", "Yes! That's the one. Wait… it's covered in blood. This will be so hard to clean!", "", "wuntch1", 1);
+        world.addRequestedItem(amy0, world.itemId("binder"), 1);
+
+        int gina0 = world.addQuest("gina0", world.characterId("Gina"), "Let Gina guide you", "", "", "", "Hey! Want a little of Gina fun? Type 'let gina guide me' when you are in the same room as me for a little surprise.", "", "", 1);
+
+        int jake0 = world.addQuest("jake0", world.characterId("Jake"), "Find one of Nikolaj's toys", "Bring Jake one of Charles' son's toys so he can prove that Charles is losing them everywhere.", "Charles you always leave your stuff lying around.\nIt's not because you have a child now that you can litter the precinct with toys.\nCharles: That's not true I don't leave Nikolaj's toys lying around.\nJake: Hey you there, if you find one of Nikolaj's toys for me I'll help you with your case.", "Have you found one of Nikolaj's toys yet?", "Thank you. With this I can finally prove Charles wrong!\nHere's one of Holt's letter I found in the bin.\nTrust me you don't want to read it.\nI'm sure you could get some valuable information in exchange for it.", "", "wuntch1", 1);
+        world.addRequestedItem(jake0, world.itemId("toycar"), 1);
+        world.setItemReward(jake0, "letter 1");
+
+        int scully0 = world.addQuest("scully0", world.characterId("Scully"), "Get Scully two hotdog", "Find two hotdogs for Scully and Hitchcock so they don't have to leave their chaors to have lunch.", "I'm starving, Hitchcock wanna go get some hotdogs?\nHitchcock: Sure but can we do it without getting out of our chairs?\nScully: You over there, would you mind getting us hotdogs?", "What time is it? 10am? No wonder I'm starving!", "That was a good hotdog. Let me tell you something.\nI think Terry did it.\nHe's been acting weirdly recently like observing the precinct with binoculars.", "", "terry0", 1);
+        world.addRequestedItem(scully0, world.itemId("hotdog"), 2);
+
+        int terry0 = world.addQuest("terry0", world.characterId("Terry"), "Find Terry's yoghurt", "Find one of Terry's missing yoghurt so he can move on with his investigation on the yoghurt thief.", "I will catch that thief and rip his tiny head off.\nCan you believe that someone has been stealing my favourite honey flavoured greek yoghurts?\nI have been scouting the whole precinct with these binoculars from the copy room but haven't found anything yet.\nWould you mind helping me with my investigation by finding one of the stolen pots for me?", "Have you found a stolen yoghurt yet?", "Honey flavored greek yoghurt: that's the right one.\nThe thief will pay for his wrong doing!", "", "wuntch1", 1);
+        world.addRequestedItem(terry0, world.itemId("yoghurt"), 1);
+
+        int wuntch0 = world.addQuest("wuntch0", world.characterId("Wuntch"), "Get dirt on Holt", "Chief Wuntch will only help you if you succeed on acquiring compromising material on Captain Holt.", "Hello, I am Chief Wuntch. I oversee the crime scene and all details relating to it get reported to me.\nMaybe I could give you a few if you helped me. All I need is a good story I can use against Holt.", "Have you found any compromising material on Captain Holt yet?", "Thank you for this. As promise here are some details about the murder:\nwe know victim was killed by someone from the precinct and with a flat object like a cricket bat or a book.", "", "amy0", 1);
+        world.addRequestedItem(wuntch0, world.itemId("letter"), 1);
+
+        int wuntch1 = world.addQuest("wuntch1", world.characterId("Wuntch"), "Make an accusation.", "It is time you officially announce who you believe is the culprit.", "You should by now have build up a solid case and have an idea of who the culprit is.\nUse the 'accuse' action below to accuse the person you believe abducted your friends.\nBe careful, you only have one accusation.", "Use the 'accuse' action to accuse the person you believe abducted your friends.", "Charles Boyle you are under arrest for murder and abduction. Everything you say from now one can and will be held against you.\nCharles: I didn't want it to go down like this. I was just jealous that Jake was being friendly to other people, it made me feel like a side friend. Abduction and murder of a witness was not what I had in mind. I messed up...\nWuntch: I will make sure to use this confession in court.", "", "", 3);
+        world.setQuestTasks(wuntch1, 1);
+
+        world.initiateAtStart(holt0);
+        world.setGuideQuest(gina0);
+        world.setAccuseQuest(wuntch1);
+        world.setFinalQuest(holt0);
+        world.setCulprit(world.characterId("Charles"));
+    }
+}
@@ -0,0 +1,107 @@
+import java.util.Random;
+
+/**
+ * The SyntheticSetup class creates a larger version of the game world,
+ * used to measure how the game behaves with many rooms and characters.
+ *
+ * The standard world is loaded first and a grid of generated rooms
+ * is then attached to the bullpen. Generated rooms are named
+ * "room 0", "room 1", ... and every fourth one contains hotdogs.
+ * Generated NPCs wander around, one in ten starting in the bullpen
+ * so that it becomes crowded.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class SyntheticSetup extends GameSetup {
+
+    /**
+     * Creates the standard game world extended with generated rooms and NPCs.
+     * @param extraRooms the amount of rooms to generate.
+     * @param extraCharacters the amount of NPCs to generate.
+     * @param seed the seed used to place the generated NPCs.
+     */
+    public SyntheticSetup(int extraRooms, int extraCharacters, long seed) {
+        super(createTemplate(extraRooms, extraCharacters, seed));
+    }
+
+    /**
+     * Creates the template of the standard world extended with generated rooms and NPCs.
+     * @param extraRooms the amount of rooms to generate.
+     * @param extraCharacters the amount of NPCs to generate.
+     * @param seed the seed used to place the generated NPCs.
+     * @return the template of the extended world.
+     */
+    public static WorldTemplate createTemplate(int extraRooms, int extraCharacters, long seed) {
+        WorldTemplate.Builder world = StandardWorld.builder();
+        int firstRoom = generateRooms(world, extraRooms);
+        generateCharacters(world, firstRoom, extraRooms, extraCharacters, new Random(seed));
+        return world.build();
+    }
+
+    /**
+     * Generates a square grid of rooms linked to the bullpen.
+     * @param world the world to add the rooms to.
+     * @param amount the amount of rooms to generate.
+     * @return the id of the first generated room.
+     */
+    private static int generateRooms(WorldTemplate.Builder world, int amount) {
+        int bullpen = world.roomId("bullpen");
+        int hotdog = world.itemId("hotdog");
+        int firstRoom = world.getRoomCount();
+        int width = (int) Math.ceil(Math.sqrt(amount));
+
+        for (int i = 0; i < amount; i++) {
+            int room = world.addRoom("room " + i, "in room " + i + ", one of the precinct's many offices");
+            if (i % 4 == 0) {
+                world.addRoomItem(room, hotdog, 3);
+            }
+
+            //Link the room to its left and upper neighbours
+            if (i % width != 0) {
+                link(world, room, room - 1);
+            }
+            if (i >= width) {
+                link(world, room, room - width);
+            }
+        }
+        if (amount > 0) {
+            link(world, firstRoom, bullpen);
+        }
+        return firstRoom;
+    }
+
+    /**
+     * Generates wandering NPCs.
+     * @param world the world to add the NPCs to.
+     * @param firstRoom the id of the first generated room.
+     * @param roomCount the amount of generated rooms the NPCs can start in.
+     * @param amount the amount of NPCs to generate.
+     * @param random the random generator used to place the NPCs.
+     */
+    private static void generateCharacters(WorldTemplate.Builder world, int firstRoom, int roomCount,
+                                           int amount, Random random) {
+        int bullpen = world.roomId("bullpen");
+        String[] interactions = {"Nine-Nine!", "I'm working a case.", "Have you seen Captain Holt?"};
+        for (int i = 0; i < amount; i++) {
+            int startingRoom = bullpen;
+            if (i % 10 != 0 && roomCount > 0) {
+                startingRoom = firstRoom + random.nextInt(roomCount);
+            }
+            world.addCharacter("Detective" + i, startingRoom, interactions, true);
+        }
+    }
+
+    /**
+     * Creates exits in both directions between two rooms,
+     * each exit being named after the room it leads to.
+     * @param world the world containing the rooms.
+     * @param room the id of the first room.
+     * @param neighbor the id of the second room.
+     */
+    private static void link(WorldTemplate.Builder world, int room, int neighbor) {
+        world.addExit(room, world.getRoomName(neighbor), neighbor);
+        world.addExit(neighbor, world.getRoomName(room), room);
+    }
+}
@@ -0,0 +1,31 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A TeleportEvent is recorded by Java Flight Recorder when the player of
+ * a game is teleported to a random room, by walking into the teleporter
+ * room or by letting the guide lead the way.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+@Name("brooklyn.Teleport")
+@Label("Teleport")
+@Category("Brooklyn Murder")
+@Description("The player teleported to a random room")
+public class TeleportEvent extends jdk.jfr.Event {
+    @Label("Session Id")
+    @Description("Id of the session running the game, 0 outside of a GameHost")
+    long sessionId;
+
+    @Label("Room Id")
+    @Description("Id of the room the player left")
+    int roomId;
+
+    @Label("Next Room Id")
+    @Description("Id of the room the player was teleported to")
+    int nextRoomId;
+}
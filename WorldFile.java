@@ -0,0 +1,661 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+/**
+ * The WorldFile class reads and writes game worlds as text files,
+ * so that content can be written without changing any Java code.
+ *
+ * A world file is made of sections, each starting with a header line
+ * naming the kind and the name of what it defines, followed by
+ * "key = value" lines. Empty lines and lines starting with '#' are ignored,
+ * and "\n" in a value stands for a line break, "\r" for a carriage return,
+ * "\t" for a tab and "\s" for a space, which keeps the spaces at either
+ * end of a value from being trimmed. For example:
+ *
+ *     [item hotdog]
+ *     plural = hotdogs
+ *     description = A delicious hotdog.
+ *     max = 8
+ *
+ *     [room bullpen]
+ *     description = in the bullpen.
+ *     exit kitchen = kitchen
+ *     item hotdog = 3
+ *
+ *     [character Gina]
+ *     room = bullpen
+ *     moves = true
+ *     line = The English language can not fully capture the depth and complexity of my thoughts.
+ *
+ *     [quest gina0]
+ *     giver = Gina
+ *     name = Gina's request
+ *     request hotdog = 2
+ *
+ * Items have a plural, description, max and pickable. Rooms have a description,
+ * exits ("exit direction = room"), items ("item name = amount") and can be
+ * flagged as the starting room ("start = true") or as the teleporter
+ * ("teleporter = true"). Characters have a room, moves, guide, culprit and
+ * one "line" per dialogue line. Quests have a giver, name, description,
+ * starting, started, completion, unlocks, next, unlock counter, tasks,
+ * requested items ("request item = amount"), room, reward and start, and
+ * can be flagged as the quest to finish before being guided ("guide = true"),
+ * the quest allowing accusations ("accuse = true") or the quest finished
+ * along with it by accusing the culprit ("final = true").
+ *
+ * Files are read line by line and each section is added to the world as
+ * soon as it ends, so even worlds with hundreds of thousands of rooms are
+ * loaded in one pass without holding the file in memory. Exits may lead to
+ * rooms defined further down; everything else must be defined before use.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class WorldFile {
+    private WorldTemplate.Builder world;
+    private String source;
+
+    //The section being read
+    private String kind;
+    private String name;
+    private int sectionLine;
+    private ArrayList<String> keys;
+    private ArrayList<String> values;
+    private ArrayList<Integer> lines;
+
+    //Exits leading to rooms which were not defined yet
+    private ArrayList<Integer> pendingExitRooms;
+    private ArrayList<String> pendingExitDirections;
+    private ArrayList<String> pendingExitTargets;
+    private ArrayList<Integer> pendingExitLines;
+
+    //The header line of every quest, by quest id
+    private ArrayList<Integer> questLines;
+
+    /**
+     * Creates a reader adding to a world.
+     * @param source the name of the file being read, used in error messages.
+     */
+    private WorldFile(String source) {
+        world = new WorldTemplate.Builder();
+        this.source = source;
+        keys = new ArrayList<>();
+        values = new ArrayList<>();
+        lines = new ArrayList<>();
+        pendingExitRooms = new ArrayList<>();
+        pendingExitDirections = new ArrayList<>();
+        pendingExitTargets = new ArrayList<>();
+        pendingExitLines = new ArrayList<>();
+        questLines = new ArrayList<>();
+    }
+
+    /**
+     * Writes the standard world to a file, as a starting point for new worlds.
+     * Usage: java WorldFile file
+     * @param args the file to write to.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: java WorldFile file");
+            return;
+        }
+        save(StandardWorld.getTemplate(), Paths.get(args[0]));
+    }
+
+    // ------ reading: ------
+
+    /**
+     * Loads a world from a file.
+     * @param file the world file, encoded in UTF-8.
+     * @return the world's template.
+     * @throws IOException if the file could not be read or is not a valid world.
+     */
+    public static WorldTemplate load(Path file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(in, file.toString());
+        }
+    }
+
+    /**
+     * Reads a world.
+     * @param in the reader to read the world from.
+     * @param source the name of what is read, used in error messages.
+     * @return the world's template.
+     * @throws IOException if the world could not be read or is not valid.
+     */
+    public static WorldTemplate read(BufferedReader in, String source) throws IOException {
+        WorldFile file = new WorldFile(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            file.readLine(line.trim(), lineNumber);
+        }
+        file.endSection();
+        file.addPendingExits();
+        try {
+            return file.world.build();
+        } catch (WorldTemplate.InvalidQuestException e) {
+            throw file.error(file.questLines.get(e.getQuest()), e.getMessage());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw file.error(lineNumber, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads one line of the file.
+     * @param line the line, without surrounding spaces.
+     * @param lineNumber the number of the line.
+     */
+    private void readLine(String line, int lineNumber) throws IOException {
+        if (line.isEmpty() || line.startsWith("#")) {
+            return;
+        }
+
+        //A header ends the previous section
+        if (line.startsWith("[")) {
+            int space = line.indexOf(' ');
+            if (!line.endsWith("]") || space == -1) {
+                throw error(lineNumber, "Invalid section header: " + line);
+            }
+            endSection();
+            kind = line.substring(1, space);
+            name = line.substring(space + 1, line.length() - 1).trim();
+            sectionLine = lineNumber;
+            return;
+        }
+
+        int equals = line.indexOf('=');
+        if (equals == -1) {
+            throw error(lineNumber, "Expected 'key = value': " + line);
+        }
+        if (kind == null) {
+            throw error(lineNumber, "Value outside of any section: " + line);
+        }
+        keys.add(line.substring(0, equals).trim());
+        values.add(unescape(line.substring(equals + 1).trim()));
+        lines.add(lineNumber);
+    }
+
+    /**
+     * Adds the section which was just read to the world.
+     */
+    private void endSection() throws IOException {
+        if (kind == null) {
+            return;
+        }
+        try {
+            switch (kind) {
+                case "item":
+                    addItem();
+                    break;
+                case "room":
+                    addRoom();
+                    break;
+                case "character":
+                    addCharacter();
+                    break;
+                case "quest":
+                    addQuest();
+                    break;
+                default:
+                    throw error(sectionLine, "Unknown section: " + kind);
+            }
+        } catch (IllegalArgumentException e) {
+            //The builder refused the section, e.g. a duplicate name or something not defined yet
+            throw error(sectionLine, e.getMessage());
+        }
+        kind = null;
+        keys.clear();
+        values.clear();
+        lines.clear();
+    }
+
+    /**
+     * Adds the item defined by the section.
+     */
+    private void addItem() throws IOException {
+        String plural = name;
+        String description = "";
+        int max = 1;
+        boolean pickable = true;
+        for (int i = 0; i < keys.size(); i++) {
+            switch (keys.get(i)) {
+                case "plural":
+                    plural = values.get(i);
+                    break;
+                case "description":
+                    description = values.get(i);
+                    break;
+                case "max":
+                    max = parseInt(i);
+                    break;
+                case "pickable":
+                    pickable = parseBoolean(i);
+                    break;
+                default:
+                    throw unknownKey(i);
+            }
+        }
+        world.addItem(name, plural, description, max, pickable);
+    }
+
+    /**
+     * Adds the room defined by the section, delaying exits to rooms not defined yet.
+     */
+    private void addRoom() throws IOException {
+        int room = world.addRoom(name, valueOf("description", ""));
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            if (key.startsWith("exit ")) {
+                String direction = key.substring(5).trim();
+                String target = values.get(i);
+                if (world.hasRoom(target)) {
+                    world.addExit(room, direction, world.roomId(target));
+                } else {
+                    pendingExitRooms.add(room);
+                    pendingExitDirections.add(direction);
+                    pendingExitTargets.add(target);
+                    pendingExitLines.add(lines.get(i));
+                }
+            } else if (key.startsWith("item ")) {
+                world.addRoomItem(room, world.itemId(key.substring(5).trim()), parseInt(i));
+            } else if (key.equals("start")) {
+                if (parseBoolean(i)) {
+                    world.setStartingRoom(room);
+                }
+            } else if (key.equals("teleporter")) {
+                if (parseBoolean(i)) {
+                    world.setTeleporterRoom(room);
+                }
+            } else if (!key.equals("description")) {
+                throw unknownKey(i);
+            }
+        }
+    }
+
+    /**
+     * Adds the NPC defined by the section.
+     */
+    private void addCharacter() throws IOException {
+        String room = null;
+        boolean moves = false;
+        boolean guide = false;
+        boolean culprit = false;
+        ArrayList<String> dialogue = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            switch (keys.get(i)) {
+                case "room":
+                    room = values.get(i);
+                    break;
+                case "moves":
+                    moves = parseBoolean(i);
+                    break;
+                case "guide":
+                    guide = parseBoolean(i);
+                    break;
+                case "culprit":
+                    culprit = parseBoolean(i);
+                    break;
+                case "line":
+                    dialogue.add(values.get(i));
+                    break;
+                default:
+                    throw unknownKey(i);
+            }
+        }
+        if (room == null) {
+            throw error(sectionLine, "Character " + name + " has no room.");
+        }
+        if (dialogue.isEmpty()) {
+            throw error(sectionLine, "Character " + name + " has no dialogue line.");
+        }
+        int character = world.addCharacter(name, world.roomId(room), dialogue.toArray(new String[0]), moves);
+        if (guide) {
+            world.setGuide(character);
+        }
+        if (culprit) {
+            world.setCulprit(character);
+        }
+    }
+
+    /**
+     * Adds the quest defined by the section.
+     */
+    private void addQuest() throws IOException {
+        String giver = valueOf("giver", null);
+        if (giver == null) {
+            throw error(sectionLine, "Quest " + name + " has no giver.");
+        }
+        int unlockCounter = 0;
+        if (keys.contains("unlock counter")) {
+            unlockCounter = parseInt(keys.lastIndexOf("unlock counter"));
+        }
+        int quest = world.addQuest(name, world.characterId(giver), valueOf("name", name),
+                valueOf("description", ""), valueOf("starting", ""), valueOf("started", ""),
+                valueOf("completion", ""), valueOf("unlocks", ""), valueOf("next", ""), unlockCounter);
+        questLines.add(sectionLine);
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            if (key.startsWith("request ")) {
+                world.addRequestedItem(quest, world.itemId(key.substring(8).trim()), parseInt(i));
+            } else {
+                switch (key) {
+                    case "tasks":
+                        world.setQuestTasks(quest, parseInt(i));
+                        break;
+                    case "room":
+                        world.setRequestedRoom(quest, world.roomId(values.get(i)));
+                        break;
+                    case "reward":
+                        world.setItemReward(quest, values.get(i));
+                        break;
+                    case "start":
+                        if (parseBoolean(i)) {
+                            world.initiateAtStart(quest);
+                        }
+                        break;
+                    case "guide":
+                        if (parseBoolean(i)) {
+                            world.setGuideQuest(quest);
+                        }
+                        break;
+                    case "accuse":
+                        if (parseBoolean(i)) {
+                            world.setAccuseQuest(quest);
+                        }
+                        break;
+                    case "final":
+                        if (parseBoolean(i)) {
+                            world.setFinalQuest(quest);
+                        }
+                        break;
+                    case "giver":
+                    case "unlock counter":
+                    case "name":
+                    case "description":
+                    case "starting":
+                    case "started":
+                    case "completion":
+                    case "unlocks":
+                    case "next":
+                        break;
+                    default:
+                        throw unknownKey(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the exits leading to rooms defined after the room they belong to.
+     */
+    private void addPendingExits() throws IOException {
+        for (int i = 0; i < pendingExitRooms.size(); i++) {
+            String target = pendingExitTargets.get(i);
+            if (!world.hasRoom(target)) {
+                throw error(pendingExitLines.get(i), "Unknown room: " + target);
+            }
+            world.addExit(pendingExitRooms.get(i), pendingExitDirections.get(i), world.roomId(target));
+        }
+    }
+
+    // ------ reading helpers: ------
+
+    /**
+     * Returns the value of a key of the current section.
+     * @param key the key.
+     * @param defaultValue the value if the section does not have the key.
+     * @return the last value given to the key, or defaultValue.
+     */
+    private String valueOf(String key, String defaultValue) {
+        int index = keys.lastIndexOf(key);
+        return index == -1 ? defaultValue : values.get(index);
+    }
+
+    /**
+     * Reads a value of the current section as a number.
+     * @param index the index of the value in the section.
+     * @return the number.
+     * @throws IOException if the value is not a number.
+     */
+    private int parseInt(int index) throws IOException {
+        try {
+            return Integer.parseInt(values.get(index));
+        } catch (NumberFormatException e) {
+            throw error(lines.get(index), keys.get(index) + " must be a number: " + values.get(index));
+        }
+    }
+
+    /**
+     * Reads a value of the current section as true or false.
+     * @param index the index of the value in the section.
+     * @return the value as a boolean.
+     * @throws IOException if the value is neither true nor false.
+     */
+    private boolean parseBoolean(int index) throws IOException {
+        String value = values.get(index);
+        if (!value.equals("true") && !value.equals("false")) {
+            throw error(lines.get(index), keys.get(index) + " must be true or false: " + value);
+        }
+        return value.equals("true");
+    }
+
+    /**
+     * Creates the error of a key the current section does not know.
+     * @param index the index of the key in the section.
+     * @return the error, to be thrown.
+     */
+    private IOException unknownKey(int index) {
+        return error(lines.get(index), "Unknown key in " + kind + " " + name + ": " + keys.get(index));
+    }
+
+    /**
+     * Creates an error pointing at a line of the file.
+     * @param lineNumber the number of the line, from 1.
+     * @param message what is wrong with the line.
+     * @return the error, to be thrown.
+     */
+    private IOException error(int lineNumber, String message) {
+        return new IOException(source + ":" + lineNumber + ": " + message);
+    }
+
+    /**
+     * Replaces the escapes of a value by the characters they stand for.
+     * @param value the value as written in the file.
+     * @return the value.
+     */
+    private static String unescape(String value) {
+        if (value.indexOf('\\') == -1) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                if (next == 'n') {
+                    unescaped.append('\n');
+                } else if (next == 'r') {
+                    unescaped.append('\r');
+                } else if (next == 't') {
+                    unescaped.append('\t');
+                } else if (next == 's') {
+                    unescaped.append(' ');
+                } else {
+                    unescaped.append(next);
+                }
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    // ------ writing: ------
+
+    /**
+     * Saves a world to a file, which can be loaded back with load.
+     * @param template the world to save.
+     * @param file the file to write, encoded in UTF-8.
+     * @throws IOException if the file could not be written.
+     */
+    public static void save(WorldTemplate template, Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            write(template, out);
+        }
+    }
+
+    /**
+     * Writes a world, one section at a time.
+     * @param template the world to write.
+     * @param out the writer to write the world to.
+     * @throws IOException if the world could not be written.
+     */
+    public static void write(WorldTemplate template, Writer out) throws IOException {
+        for (int id = 0; id < template.getItemCount(); id++) {
+            WorldTemplate.ItemDefinition item = template.getItem(id);
+            header(out, "item", item.getName());
+            value(out, "plural", item.getPluralName());
+            value(out, "description", item.getDescription());
+            value(out, "max", Integer.toString(item.getMaxAmount()));
+            value(out, "pickable", Boolean.toString(item.isPickable()));
+        }
+
+        for (int id = 0; id < template.getRoomCount(); id++) {
+            WorldTemplate.RoomDefinition room = template.getRoom(id);
+            header(out, "room", room.getName());
+            value(out, "description", room.getDescription());
+            for (int exit = 0; exit < room.getExitCount(); exit++) {
+                value(out, "exit " + room.getExitDirection(exit), template.getRoom(room.getExitRoom(exit)).getName());
+            }
+            for (int i = 0; i < room.getItemCount(); i++) {
+                value(out, "item " + template.getItem(room.getItem(i)).getName(), Integer.toString(room.getItemAmount(i)));
+            }
+            if (id == template.getStartingRoom()) {
+                value(out, "start", "true");
+            }
+            if (id == template.getTeleporterRoom()) {
+                value(out, "teleporter", "true");
+            }
+        }
+
+        for (int id = 0; id < template.getCharacterCount(); id++) {
+            WorldTemplate.CharacterDefinition character = template.getCharacter(id);
+            header(out, "character", character.getName());
+            value(out, "room", template.getRoom(character.getStartingRoom()).getName());
+            value(out, "moves", Boolean.toString(character.canMove()));
+            if (id == template.getGuide()) {
+                value(out, "guide", "true");
+            }
+            if (id == template.getCulprit()) {
+                value(out, "culprit", "true");
+            }
+            for (String line : character.getDefaultInteractions()) {
+                value(out, "line", line);
+            }
+        }
+
+        for (int id = 0; id < template.getQuestCount(); id++) {
+            WorldTemplate.QuestDefinition quest = template.getQuest(id);
+            header(out, "quest", quest.getKey());
+            value(out, "giver", template.getCharacter(quest.getQuestGiver()).getName());
+            value(out, "name", quest.getName());
+            value(out, "description", quest.getDescription());
+            value(out, "starting", quest.getStartingInteraction());
+            value(out, "started", quest.getStartedInteraction());
+            value(out, "completion", quest.getCompletionMsg());
+            value(out, "unlocks", quest.getUnlocksQuests());
+            value(out, "next", quest.getNextQuests());
+            value(out, "unlock counter", Integer.toString(quest.getUnlockCounter()));
+            if (quest.getTasks() != -1) {
+                value(out, "tasks", Integer.toString(quest.getTasks()));
+            }
+            for (int i = 0; i < quest.getRequestedItemCount(); i++) {
+                value(out, "request " + template.getItem(quest.getRequestedItem(i)).getName(),
+                        Integer.toString(quest.getRequestedAmount(i)));
+            }
+            if (quest.getRequestedRoom() != -1) {
+                value(out, "room", template.getRoom(quest.getRequestedRoom()).getName());
+            }
+            value(out, "reward", quest.getItemReward());
+            if (quest.isInitiatedAtStart()) {
+                value(out, "start", "true");
+            }
+            if (id == template.getGuideQuest()) {
+                value(out, "guide", "true");
+            }
+            if (id == template.getAccuseQuest()) {
+                value(out, "accuse", "true");
+            }
+            if (id == template.getFinalQuest()) {
+                value(out, "final", "true");
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the header line starting a section.
+     * @param out the writer to write to.
+     * @param kind the kind of what the section defines, e.g. "room".
+     * @param name the name of what the section defines.
+     * @throws IOException if the name can not be read back or could not be written.
+     */
+    private static void header(Writer out, String kind, String name) throws IOException {
+        if (name.contains("]") || name.contains("=") || name.contains("\n") || name.contains("\r")
+                || !name.equals(name.trim())) {
+            throw new IOException("Can not write the name of " + kind + " '" + name + "'.");
+        }
+        out.write("\n[" + kind + " " + name + "]\n");
+    }
+
+    /**
+     * Writes a "key = value" line, escaping the value so that it reads back
+     * the same: line breaks, backslashes and the blanks at either end.
+     * @param out the writer to write to.
+     * @param key the key.
+     * @param value the value.
+     * @throws IOException if the key or value can not be read back or could not be written.
+     */
+    private static void value(Writer out, String key, String value) throws IOException {
+        if (key.contains("=") || key.contains("\n") || key.contains("\r") || !key.equals(key.trim())) {
+            throw new IOException("Can not write key '" + key + "'.");
+        }
+        out.write(key);
+        out.write(" = ");
+        String trimmed = value.trim();
+        int start = value.indexOf(trimmed);
+        int end = start + trimmed.length();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean blank = i < start || i >= end;
+            if (c == '\n') {
+                out.write("\\n");
+            } else if (c == '\r') {
+                out.write("\\r");
+            } else if (c == '\\') {
+                out.write("\\\\");
+            } else if (blank && c == ' ') {
+                out.write("\\s");
+            } else if (blank && c == '\t') {
+                out.write("\\t");
+            } else if (blank) {
+
+                //Other control characters at either end would be trimmed away
+                throw new IOException("Can not write the value of " + key + ": '" + value + "'.");
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('\n');
+    }
+}
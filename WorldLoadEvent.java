@@ -0,0 +1,33 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A WorldLoadEvent is recorded by Java Flight Recorder for every world
+ * set up for a game by a GameSetup, lasting as long as the setup did.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+@Name("brooklyn.WorldLoad")
+@Label("World Load")
+@Category("Brooklyn Murder")
+@Description("The rooms, NPCs, items and quests of a game being set up")
+public class WorldLoadEvent extends jdk.jfr.Event {
+    @Label("Room Count")
+    int roomCount;
+
+    @Label("Character Count")
+    int characterCount;
+
+    @Label("Item Count")
+    int itemCount;
+
+    @Label("Quest Count")
+    int questCount;
+
+    @Label("Starting Room Id")
+    int startingRoomId;
+}
@@ -0,0 +1,1231 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * The WorldTemplate class holds everything about a game world that never
+ * changes while playing: the items, the rooms and their exits, the NPCs and
+ * their dialogue and the quest definitions. Each part has a dense integer id
+ * given by the order in which it was added.
+ *
+ * A template is built once through its Builder and is immutable afterwards,
+ * so it can be shared by every game using that world. GameSetup turns it
+ * into the objects holding the state of a single game, which only reference
+ * the template's strings and dialogue instead of copying them.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+
+public class WorldTemplate {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ItemDefinition[] items;
+    private RoomDefinition[] rooms;
+    private CharacterDefinition[] characters;
+    private QuestDefinition[] quests;
+    private int startingRoom;
+    private int teleporterRoom;
+    private int guide;
+    private int guideQuest;
+    private int accuseQuest;
+    private int finalQuest;
+    private int culprit;
+    private ItemRegistry itemRegistry;
+    private QuestGraph questGraph;
+    private RoomGraph roomGraph;
+    private HashMap<String, Integer> roomIds;
+    private volatile RoomRoutes roomRoutes;
+    private long fingerprint;
+
+    /**
+     * Creates a template. Templates are created through a Builder.
+     */
+    private WorldTemplate(ItemDefinition[] items, RoomDefinition[] rooms, CharacterDefinition[] characters,
+                          QuestDefinition[] quests, int startingRoom, int teleporterRoom, int guide,
+                          int guideQuest, int accuseQuest, int finalQuest, int culprit,
+                          ItemRegistry itemRegistry, QuestGraph questGraph, RoomGraph roomGraph,
+                          HashMap<String, Integer> roomIds) {
+        this.items = items;
+        this.rooms = rooms;
+        this.characters = characters;
+        this.quests = quests;
+        this.startingRoom = startingRoom;
+        this.teleporterRoom = teleporterRoom;
+        this.guide = guide;
+        this.guideQuest = guideQuest;
+        this.accuseQuest = accuseQuest;
+        this.finalQuest = finalQuest;
+        this.culprit = culprit;
+        this.itemRegistry = itemRegistry;
+        this.questGraph = questGraph;
+        this.roomGraph = roomGraph;
+        this.roomIds = roomIds;
+    }
+
+    // ------ accessor methods: ------
+
+    /**
+     * Returns the amount of items in the world.
+     * @return the amount of items in the world.
+     */
+    public int getItemCount() {
+        return items.length;
+    }
+
+    /**
+     * Returns an item's definition given its id.
+     * @param id the item's id.
+     * @return the item's definition.
+     */
+    public ItemDefinition getItem(int id) {
+        return items[id];
+    }
+
+    /**
+     * Returns the amount of rooms in the world.
+     * @return the amount of rooms in the world.
+     */
+    public int getRoomCount() {
+        return rooms.length;
+    }
+
+    /**
+     * Returns a room's definition given its id.
+     * @param id the room's id.
+     * @return the room's definition.
+     */
+    public RoomDefinition getRoom(int id) {
+        return rooms[id];
+    }
+
+    /**
+     * Returns a room's id given its name.
+     * @param name the room's name.
+     * @return the room's id, or -1 if there is no such room.
+     */
+    public int findRoom(String name) {
+        Integer id = roomIds.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the amount of NPCs in the world.
+     * @return the amount of NPCs in the world.
+     */
+    public int getCharacterCount() {
+        return characters.length;
+    }
+
+    /**
+     * Returns an NPC's definition given its id.
+     * @param id the NPC's id.
+     * @return the NPC's definition.
+     */
+    public CharacterDefinition getCharacter(int id) {
+        return characters[id];
+    }
+
+    /**
+     * Returns the amount of quests in the world.
+     * @return the amount of quests in the world.
+     */
+    public int getQuestCount() {
+        return quests.length;
+    }
+
+    /**
+     * Returns a quest's definition given its id.
+     * @param id the quest's id.
+     * @return the quest's definition.
+     */
+    public QuestDefinition getQuest(int id) {
+        return quests[id];
+    }
+
+    /**
+     * Returns the registry resolving item names to item ids.
+     * @return the world's item registry.
+     */
+    public ItemRegistry getItemRegistry() {
+        return itemRegistry;
+    }
+
+    /**
+     * Returns the graph of which quests unlock which.
+     * @return the world's quest graph.
+     */
+    public QuestGraph getQuestGraph() {
+        return questGraph;
+    }
+
+    /**
+     * Returns the exits of every room compiled by room id.
+     * @return the world's room graph.
+     */
+    public RoomGraph getRoomGraph() {
+        return roomGraph;
+    }
+
+    /**
+     * Returns the shortest routes between rooms, avoiding the teleporter room.
+     * @return the world's room routes.
+     */
+    public RoomRoutes getRoomRoutes() {
+        //Compiled on first use only, as large worlds take a while to compile
+        RoomRoutes routes = roomRoutes;
+        if (routes == null) {
+            synchronized (this) {
+                routes = roomRoutes;
+                if (routes == null) {
+                    routes = new RoomRoutes(roomGraph, teleporterRoom);
+                    roomRoutes = routes;
+                }
+            }
+        }
+        return routes;
+    }
+
+    /**
+     * Returns the id of the room players start in.
+     * @return the id of the room players start in.
+     */
+    public int getStartingRoom() {
+        return startingRoom;
+    }
+
+    /**
+     * Returns the id of the room teleporting players away, or -1 if there is none.
+     * @return the id of the teleporter room.
+     */
+    public int getTeleporterRoom() {
+        return teleporterRoom;
+    }
+
+    /**
+     * Returns the id of the NPC who can guide players
+     * to a random room, or -1 if there is none.
+     * @return the id of the guiding NPC.
+     */
+    public int getGuide() {
+        return guide;
+    }
+
+    /**
+     * Returns the id of the quest players must finish before the guiding
+     * NPC guides them, or -1 if the NPC guides them from the start.
+     * @return the id of the guide quest.
+     */
+    public int getGuideQuest() {
+        return guideQuest;
+    }
+
+    /**
+     * Returns the id of the quest allowing players to accuse an NPC once
+     * started, or -1 if nobody can be accused in the world.
+     * @return the id of the accuse quest.
+     */
+    public int getAccuseQuest() {
+        return accuseQuest;
+    }
+
+    /**
+     * Returns the id of the quest finished along with the accuse quest when
+     * players accuse the culprit, or -1 if there is none. Players can no
+     * longer accuse anyone once it is finished.
+     * @return the id of the final quest.
+     */
+    public int getFinalQuest() {
+        return finalQuest;
+    }
+
+    /**
+     * Returns the id of the NPC players win the game by accusing,
+     * or -1 if there is none.
+     * @return the id of the culprit.
+     */
+    public int getCulprit() {
+        return culprit;
+    }
+
+    /**
+     * Returns a fingerprint of the world's structure: its items, rooms, exits,
+     * NPCs and quests along with their ids. Saved games and snapshots refer to
+     * these by id, so they can only be restored into a world with the same fingerprint.
+     * Descriptions and dialogue are not part of it and can change freely.
+     * @return the world's fingerprint.
+     */
+    public long getFingerprint() {
+        //Computed on first use only, as large worlds take a while to hash
+        if (fingerprint == 0) {
+            long hash = FNV_OFFSET;
+            hash = hash(hash, items.length);
+            for (ItemDefinition item : items) {
+                hash = hash(hash, item.name);
+                hash = hash(hash, item.pluralName);
+                hash = hash(hash, item.maxAmount);
+            }
+            hash = hash(hash, rooms.length);
+            for (RoomDefinition room : rooms) {
+                hash = hash(hash, room.name);
+                for (int exit = 0; exit < room.exitRooms.length; exit++) {
+                    hash = hash(hash, room.exitDirections[exit]);
+                    hash = hash(hash, room.exitRooms[exit]);
+                }
+            }
+            hash = hash(hash, characters.length);
+            for (CharacterDefinition character : characters) {
+                hash = hash(hash, character.name);
+            }
+            hash = hash(hash, quests.length);
+            for (QuestDefinition quest : quests) {
+                hash = hash(hash, quest.key);
+                hash = hash(hash, quest.questGiver);
+            }
+            fingerprint = hash == 0 ? 1 : hash;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Adds an int to an FNV-1a hash.
+     * @param hash the hash so far.
+     * @param value the int to add.
+     * @return the new hash.
+     */
+    private static long hash(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Adds a string to an FNV-1a hash.
+     * @param hash the hash so far.
+     * @param value the string to add.
+     * @return the new hash.
+     */
+    private static long hash(long hash, String value) {
+        hash = hash(hash, value.length());
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // ------ definitions: ------
+
+    /**
+     * The unchanging part of an item.
+     */
+    public static class ItemDefinition {
+        private int id;
+        private String name;
+        private String pluralName;
+        private String description;
+        private int maxAmount;
+        private boolean pickable;
+
+        private ItemDefinition(int id, String name, String pluralName, String description, int maxAmount, boolean pickable) {
+            this.id = id;
+            this.name = name;
+            this.pluralName = pluralName;
+            this.description = description;
+            this.maxAmount = maxAmount;
+            this.pickable = pickable;
+        }
+
+        /**
+         * Returns the item's id.
+         * @return the item's id.
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Returns the item's name.
+         * @return the item's name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the plural form of the item's name.
+         * @return the item's plural name.
+         */
+        public String getPluralName() {
+            return pluralName;
+        }
+
+        /**
+         * Returns the item's description.
+         * @return the item's description.
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * Returns the most of the item a room or inventory can hold.
+         * @return the item's max amount or weight.
+         */
+        public int getMaxAmount() {
+            return maxAmount;
+        }
+
+        /**
+         * Returns whether or not players can pick the item up.
+         * @return true if the item can be picked up, false otherwise.
+         */
+        public boolean isPickable() {
+            return pickable;
+        }
+    }
+
+    /**
+     * The unchanging part of a room: its exits and the items it starts with.
+     */
+    public static class RoomDefinition {
+        private int id;
+        private String name;
+        private String description;
+        private String[] exitDirections;
+        private int[] exitRooms;
+        private int[] items;
+        private int[] itemAmounts;
+
+        private RoomDefinition(int id, String name, String description, String[] exitDirections,
+                               int[] exitRooms, int[] items, int[] itemAmounts) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.exitDirections = exitDirections;
+            this.exitRooms = exitRooms;
+            this.items = items;
+            this.itemAmounts = itemAmounts;
+        }
+
+        /**
+         * Returns the room's id.
+         * @return the room's id.
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Returns the room's name, used by exits leading to it.
+         * @return the room's name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the room's description.
+         * @return the room's description.
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * Returns the amount of exits of the room.
+         * @return the amount of exits.
+         */
+        public int getExitCount() {
+            return exitRooms.length;
+        }
+
+        /**
+         * Returns the direction of an exit.
+         * @param exit the index of the exit, from 0 to getExitCount() - 1.
+         * @return the exit's direction.
+         */
+        public String getExitDirection(int exit) {
+            return exitDirections[exit];
+        }
+
+        /**
+         * Returns the room an exit leads to.
+         * @param exit the index of the exit, from 0 to getExitCount() - 1.
+         * @return the id of the room the exit leads to.
+         */
+        public int getExitRoom(int exit) {
+            return exitRooms[exit];
+        }
+
+        /**
+         * Returns the amount of different items the room starts with.
+         * @return the amount of different items.
+         */
+        public int getItemCount() {
+            return items.length;
+        }
+
+        /**
+         * Returns an item the room starts with.
+         * @param index the index of the item, from 0 to getItemCount() - 1.
+         * @return the item's id.
+         */
+        public int getItem(int index) {
+            return items[index];
+        }
+
+        /**
+         * Returns how much of an item the room starts with.
+         * @param index the index of the item, from 0 to getItemCount() - 1.
+         * @return the amount of the item.
+         */
+        public int getItemAmount(int index) {
+            return itemAmounts[index];
+        }
+    }
+
+    /**
+     * The unchanging part of an NPC.
+     */
+    public static class CharacterDefinition {
+        private int id;
+        private String name;
+        private int startingRoom;
+        private String[] defaultInteractions;
+        private boolean canMove;
+
+        private CharacterDefinition(int id, String name, int startingRoom, String[] defaultInteractions, boolean canMove) {
+            this.id = id;
+            this.name = name;
+            this.startingRoom = startingRoom;
+            this.defaultInteractions = defaultInteractions;
+            this.canMove = canMove;
+        }
+
+        /**
+         * Returns the NPC's id.
+         * @return the NPC's id.
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Returns the NPC's name.
+         * @return the NPC's name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the room the NPC starts in.
+         * @return the id of the NPC's starting room.
+         */
+        public int getStartingRoom() {
+            return startingRoom;
+        }
+
+        /**
+         * Returns the NPC's default interactions. The array is
+         * shared by every game and must not be modified.
+         * @return the NPC's default interactions.
+         */
+        public String[] getDefaultInteractions() {
+            return defaultInteractions;
+        }
+
+        /**
+         * Returns whether or not the NPC wanders between rooms.
+         * @return true if the NPC can move, false otherwise.
+         */
+        public boolean canMove() {
+            return canMove;
+        }
+    }
+
+    /**
+     * The unchanging part of a quest. Quests unlocking other quests refer
+     * to them by key, in the '/' separated format used by the Quest class.
+     */
+    public static class QuestDefinition {
+        private int id;
+        private String key;
+        private int questGiver;
+        private String name;
+        private String description;
+        private String startingInteraction;
+        private String startedInteraction;
+        private String completionMsg;
+        private String unlocksQuests;
+        private String nextQuests;
+        private int unlockCounter;
+        private int tasks;
+        private int[] requestedItems;
+        private int[] requestedAmounts;
+        private int requestedRoom;
+        private String itemReward;
+        private int[] rewardItems;
+        private int[] rewardAmounts;
+        private boolean initiatedAtStart;
+
+        private QuestDefinition(QuestDraft draft, ItemRegistry registry) {
+            id = draft.id;
+            key = draft.key;
+            questGiver = draft.questGiver;
+            name = draft.name;
+            description = draft.description;
+            startingInteraction = draft.startingInteraction;
+            startedInteraction = draft.startedInteraction;
+            completionMsg = draft.completionMsg;
+            unlocksQuests = draft.unlocksQuests;
+            nextQuests = draft.nextQuests;
+            unlockCounter = draft.unlockCounter;
+            tasks = draft.tasks;
+            requestedItems = toArray(draft.requestedItems);
+            requestedAmounts = toArray(draft.requestedAmounts);
+            requestedRoom = draft.requestedRoom;
+            itemReward = draft.itemReward;
+            initiatedAtStart = draft.initiatedAtStart;
+
+            //Resolve the rewarded items once instead of on every completion
+            String[] rewards = itemReward.isEmpty() ? new String[0] : itemReward.split("/");
+            rewardItems = new int[rewards.length];
+            rewardAmounts = new int[rewards.length];
+            for (int i = 0; i < rewards.length; i++) {
+                String reward = rewards[i].trim();
+                int space = reward.lastIndexOf(' ');
+                rewardItems[i] = space == -1 ? -1 : registry.getId(reward.substring(0, space));
+                if (rewardItems[i] == -1) {
+                    throw new InvalidQuestException(id, "Invalid reward of quest " + key + ": " + reward);
+                }
+                try {
+                    rewardAmounts[i] = Integer.parseInt(reward.substring(space + 1));
+                } catch (NumberFormatException e) {
+                    throw new InvalidQuestException(id, "Invalid reward of quest " + key + ": " + reward);
+                }
+            }
+        }
+
+        /**
+         * Returns the quest's id.
+         * @return the quest's id.
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Returns the key other quests refer to the quest by.
+         * @return the quest's key.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the NPC giving the quest.
+         * @return the id of the quest giver.
+         */
+        public int getQuestGiver() {
+            return questGiver;
+        }
+
+        /**
+         * Returns the quest's name.
+         * @return the quest's name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the quest's description.
+         * @return the quest's description.
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * Returns what the quest giver says when offering the quest.
+         * @return the quest's starting interaction.
+         */
+        public String getStartingInteraction() {
+            return startingInteraction;
+        }
+
+        /**
+         * Returns what the quest giver says once the quest is started.
+         * @return the quest's started interaction.
+         */
+        public String getStartedInteraction() {
+            return startedInteraction;
+        }
+
+        /**
+         * Returns what the quest giver says when the quest is finished.
+         * @return the quest's completion message.
+         */
+        public String getCompletionMsg() {
+            return completionMsg;
+        }
+
+        /**
+         * Returns the keys of the quests starting the quest unlocks.
+         * @return the keys of the unlocked quests, '/' separated.
+         */
+        public String getUnlocksQuests() {
+            return unlocksQuests;
+        }
+
+        /**
+         * Returns the keys of the quests finishing the quest unlocks.
+         * @return the keys of the next quests, '/' separated.
+         */
+        public String getNextQuests() {
+            return nextQuests;
+        }
+
+        /**
+         * Returns how many quests must unlock the quest before it is offered.
+         * @return the quest's unlock counter.
+         */
+        public int getUnlockCounter() {
+            return unlockCounter;
+        }
+
+        /**
+         * Returns the amount of tasks set explicitly for the quest, or -1 if the
+         * amount is given by its requested items and room.
+         * @return the amount of tasks set explicitly for the quest.
+         */
+        public int getTasks() {
+            return tasks;
+        }
+
+        /**
+         * Returns the amount of different items the quest requests.
+         * @return the amount of requested items.
+         */
+        public int getRequestedItemCount() {
+            return requestedItems.length;
+        }
+
+        /**
+         * Returns an item the quest requests.
+         * @param index the index of the item, from 0 to getRequestedItemCount() - 1.
+         * @return the item's id.
+         */
+        public int getRequestedItem(int index) {
+            return requestedItems[index];
+        }
+
+        /**
+         * Returns how much of an item the quest requests.
+         * @param index the index of the item, from 0 to getRequestedItemCount() - 1.
+         * @return the requested amount.
+         */
+        public int getRequestedAmount(int index) {
+            return requestedAmounts[index];
+        }
+
+        /**
+         * Returns the id of the room the quest requests, or -1 if there is none.
+         * @return the id of the requested room.
+         */
+        public int getRequestedRoom() {
+            return requestedRoom;
+        }
+
+        /**
+         * Returns the items rewarded for the quest as written in the world,
+         * e.g. "hotdog 2/badge 1".
+         * @return the rewarded items, '/' separated.
+         */
+        public String getItemReward() {
+            return itemReward;
+        }
+
+        /**
+         * Returns the amount of different items rewarded for the quest.
+         * @return the amount of rewarded items.
+         */
+        public int getRewardCount() {
+            return rewardItems.length;
+        }
+
+        /**
+         * Returns an item rewarded for the quest.
+         * @param index the index of the reward, from 0 to getRewardCount() - 1.
+         * @return the item's id.
+         */
+        public int getRewardItem(int index) {
+            return rewardItems[index];
+        }
+
+        /**
+         * Returns how much of an item is rewarded for the quest.
+         * @param index the index of the reward, from 0 to getRewardCount() - 1.
+         * @return the rewarded amount.
+         */
+        public int getRewardAmount(int index) {
+            return rewardAmounts[index];
+        }
+
+        /**
+         * Returns whether or not the quest is initiated when the game starts.
+         * @return true if the quest is initiated at start, false otherwise.
+         */
+        public boolean isInitiatedAtStart() {
+            return initiatedAtStart;
+        }
+    }
+
+    /**
+     * Thrown when a quest definition is not valid, e.g. when it unlocks
+     * an unknown quest or rewards an unknown item.
+     */
+    public static class InvalidQuestException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        private int quest;
+
+        /**
+         * Creates the exception.
+         * @param quest the id of the invalid quest.
+         * @param message what is wrong with the quest.
+         */
+        public InvalidQuestException(int quest, String message) {
+            super(message);
+            this.quest = quest;
+        }
+
+        /**
+         * Returns the quest which is not valid.
+         * @return the id of the quest.
+         */
+        public int getQuest() {
+            return quest;
+        }
+    }
+
+    // ------ building templates: ------
+
+    /**
+     * The Builder class assembles a WorldTemplate part by part.
+     * Parts refer to each other by the ids returned when adding them,
+     * or by name through the lookup methods.
+     */
+    public static class Builder {
+        private ArrayList<ItemDefinition> items = new ArrayList<>();
+        private ArrayList<RoomDraft> rooms = new ArrayList<>();
+        private ArrayList<CharacterDefinition> characters = new ArrayList<>();
+        private ArrayList<QuestDraft> quests = new ArrayList<>();
+        private HashMap<String, Integer> itemIds = new HashMap<>();
+        private HashMap<String, Integer> roomIds = new HashMap<>();
+        private HashMap<String, Integer> characterIds = new HashMap<>();
+        private HashMap<String, Integer> questIds = new HashMap<>();
+        private int startingRoom = 0;
+        private int teleporterRoom = -1;
+        private int guide = -1;
+        private int guideQuest = -1;
+        private int accuseQuest = -1;
+        private int finalQuest = -1;
+        private int culprit = -1;
+
+        /**
+         * Adds an item.
+         * @param name the item's name.
+         * @param pluralName the plural form of the item's name.
+         * @param description the item's description.
+         * @param maxAmount the item's max amount or weight.
+         * @param pickable whether or not players can pick the item up.
+         * @return the item's id.
+         */
+        public int addItem(String name, String pluralName, String description, int maxAmount, boolean pickable) {
+            checkUnique(itemIds, name, "item");
+            int id = items.size();
+            items.add(new ItemDefinition(id, name, pluralName, description, maxAmount, pickable));
+            itemIds.put(name, id);
+            return id;
+        }
+
+        /**
+         * Adds a room without exits or items.
+         * @param name the room's name, used by exits leading to it.
+         * @param description the room's description.
+         * @return the room's id.
+         */
+        public int addRoom(String name, String description) {
+            checkUnique(roomIds, name, "room");
+            int id = rooms.size();
+            rooms.add(new RoomDraft(id, name, description));
+            roomIds.put(name, id);
+            return id;
+        }
+
+        /**
+         * Adds an exit to a room.
+         * @param room the id of the room.
+         * @param direction the direction of the exit.
+         * @param neighbor the id of the room the exit leads to.
+         */
+        public void addExit(int room, String direction, int neighbor) {
+            checkId(neighbor, rooms.size(), "room");
+            rooms.get(room).exitDirections.add(direction);
+            rooms.get(room).exitRooms.add(neighbor);
+        }
+
+        /**
+         * Adds an item which is in a room at the start of the game.
+         * @param room the id of the room.
+         * @param item the id of the item.
+         * @param amount the amount of that item in the room.
+         */
+        public void addRoomItem(int room, int item, int amount) {
+            checkId(item, items.size(), "item");
+            rooms.get(room).items.add(item);
+            rooms.get(room).itemAmounts.add(amount);
+        }
+
+        /**
+         * Adds an NPC.
+         * @param name the NPC's name.
+         * @param startingRoom the id of the NPC's starting room.
+         * @param defaultInteractions the NPC's default interactions, each separated by a '/'.
+         * @param canMove whether or not the NPC wanders around.
+         * @return the NPC's id.
+         */
+        public int addCharacter(String name, int startingRoom, String defaultInteractions, boolean canMove) {
+            return addCharacter(name, startingRoom, defaultInteractions.split("/"), canMove);
+        }
+
+        /**
+         * Adds an NPC.
+         * @param name the NPC's name.
+         * @param startingRoom the id of the NPC's starting room.
+         * @param defaultInteractions the NPC's default interactions.
+         * @param canMove whether or not the NPC wanders around.
+         * @return the NPC's id.
+         */
+        public int addCharacter(String name, int startingRoom, String[] defaultInteractions, boolean canMove) {
+            checkId(startingRoom, rooms.size(), "room");
+            checkUnique(characterIds, name, "character");
+            int id = characters.size();
+            characters.add(new CharacterDefinition(id, name, startingRoom, defaultInteractions, canMove));
+            characterIds.put(name, id);
+            return id;
+        }
+
+        /**
+         * Adds a quest.
+         * @param key the code name of the quest, used by quests unlocking it.
+         * @param questGiver the id of the NPC that gives the quest.
+         * @param name the name of the quest.
+         * @param description the quest's description.
+         * @param startingInteraction the quest's starting message.
+         * @param startedInteraction the quest's started message.
+         * @param completionMsg the quest's completion message
+         * @param unlocksQuests the quests to unlock once this one is started.
+         * @param nextQuests the quests to unlock once this one is finished.
+         * @param unlockCounter the amount of previous quests linked to this one
+         *                      required to be started/completed for this quest to unlock.
+         * @return the quest's id.
+         */
+        public int addQuest(String key, int questGiver, String name, String description, String startingInteraction,
+                            String startedInteraction, String completionMsg, String unlocksQuests,
+                            String nextQuests, int unlockCounter) {
+            checkId(questGiver, characters.size(), "character");
+            checkUnique(questIds, key, "quest");
+            QuestDraft quest = new QuestDraft();
+            quest.id = quests.size();
+            quest.key = key;
+            quest.questGiver = questGiver;
+            quest.name = name;
+            quest.description = description;
+            quest.startingInteraction = startingInteraction;
+            quest.startedInteraction = startedInteraction;
+            quest.completionMsg = completionMsg;
+            quest.unlocksQuests = unlocksQuests;
+            quest.nextQuests = nextQuests;
+            quest.unlockCounter = unlockCounter;
+            quests.add(quest);
+            questIds.put(key, quest.id);
+            return quest.id;
+        }
+
+        /**
+         * Sets the amount of tasks of a quest which neither requests items nor a room.
+         * @param quest the id of the quest.
+         * @param tasks the amount of tasks.
+         */
+        public void setQuestTasks(int quest, int tasks) {
+            quests.get(quest).tasks = tasks;
+        }
+
+        /**
+         * Adds an item a quest requires for completion.
+         * @param quest the id of the quest.
+         * @param item the id of the item.
+         * @param amount the amount required.
+         */
+        public void addRequestedItem(int quest, int item, int amount) {
+            checkId(item, items.size(), "item");
+            quests.get(quest).requestedItems.add(item);
+            quests.get(quest).requestedAmounts.add(amount);
+        }
+
+        /**
+         * Sets the room a quest requires to visit for completion.
+         * @param quest the id of the quest.
+         * @param room the id of the room.
+         */
+        public void setRequestedRoom(int quest, int room) {
+            checkId(room, rooms.size(), "room");
+            quests.get(quest).requestedRoom = room;
+        }
+
+        /**
+         * Sets the items rewarded for completing a quest.
+         * @param quest the id of the quest.
+         * @param reward the rewards in the format "itemName itemAmount/itemName itemAmount/..."
+         */
+        public void setItemReward(int quest, String reward) {
+            quests.get(quest).itemReward = reward;
+        }
+
+        /**
+         * Makes a quest initiate when the game starts.
+         * @param quest the id of the quest.
+         */
+        public void initiateAtStart(int quest) {
+            quests.get(quest).initiatedAtStart = true;
+        }
+
+        /**
+         * Sets the room players start in.
+         * @param room the id of the room.
+         */
+        public void setStartingRoom(int room) {
+            checkId(room, rooms.size(), "room");
+            startingRoom = room;
+        }
+
+        /**
+         * Sets the room which teleports players to a random room.
+         * @param room the id of the room.
+         */
+        public void setTeleporterRoom(int room) {
+            checkId(room, rooms.size(), "room");
+            teleporterRoom = room;
+        }
+
+        /**
+         * Sets the NPC who can guide players to a random room.
+         * @param character the id of the NPC.
+         */
+        public void setGuide(int character) {
+            checkId(character, characters.size(), "character");
+            guide = character;
+        }
+
+        /**
+         * Sets the quest players must finish before the guiding NPC guides them.
+         * @param quest the id of the quest.
+         */
+        public void setGuideQuest(int quest) {
+            checkId(quest, quests.size(), "quest");
+            guideQuest = quest;
+        }
+
+        /**
+         * Sets the quest allowing players to accuse an NPC once started.
+         * @param quest the id of the quest.
+         */
+        public void setAccuseQuest(int quest) {
+            checkId(quest, quests.size(), "quest");
+            accuseQuest = quest;
+        }
+
+        /**
+         * Sets the quest finished along with the accuse quest when players
+         * accuse the culprit, after which nobody can be accused anymore.
+         * @param quest the id of the quest.
+         */
+        public void setFinalQuest(int quest) {
+            checkId(quest, quests.size(), "quest");
+            finalQuest = quest;
+        }
+
+        /**
+         * Sets the NPC players win the game by accusing.
+         * @param character the id of the NPC.
+         */
+        public void setCulprit(int character) {
+            checkId(character, characters.size(), "character");
+            culprit = character;
+        }
+
+        // ------ lookups: ------
+
+        /**
+         * Returns an item's id given its name.
+         * @param name the item's name.
+         * @return the item's id.
+         */
+        public int itemId(String name) {
+            return lookup(itemIds, name, "item");
+        }
+
+        /**
+         * Returns a room's id given its name.
+         * @param name the room's name.
+         * @return the room's id.
+         */
+        public int roomId(String name) {
+            return lookup(roomIds, name, "room");
+        }
+
+        /**
+         * Returns an NPC's id given its name.
+         * @param name the NPC's name.
+         * @return the NPC's id.
+         */
+        public int characterId(String name) {
+            return lookup(characterIds, name, "character");
+        }
+
+        /**
+         * Returns a quest's id given its key.
+         * @param key the quest's key.
+         * @return the quest's id.
+         */
+        public int questId(String key) {
+            return lookup(questIds, key, "quest");
+        }
+
+        /**
+         * Returns whether or not a room with the given name was added.
+         * @param name the room's name.
+         * @return whether or not such a room exists.
+         */
+        public boolean hasRoom(String name) {
+            return roomIds.containsKey(name);
+        }
+
+        /**
+         * Returns a room's name given its id.
+         * @param room the room's id.
+         * @return the room's name.
+         */
+        public String getRoomName(int room) {
+            return rooms.get(room).name;
+        }
+
+        /**
+         * Returns the amount of rooms added so far.
+         * @return the amount of rooms added so far.
+         */
+        public int getRoomCount() {
+            return rooms.size();
+        }
+
+        /**
+         * Builds the template. The builder should not be used afterwards.
+         * @return the template.
+         */
+        public WorldTemplate build() {
+            if (rooms.isEmpty()) {
+                throw new IllegalStateException("A world needs at least one room.");
+            }
+            RoomDefinition[] roomDefinitions = new RoomDefinition[rooms.size()];
+            for (RoomDraft room : rooms) {
+                roomDefinitions[room.id] = new RoomDefinition(room.id, room.name, room.description,
+                        room.exitDirections.toArray(new String[0]), toArray(room.exitRooms),
+                        toArray(room.items), toArray(room.itemAmounts));
+            }
+            ItemDefinition[] itemDefinitions = items.toArray(new ItemDefinition[0]);
+            ItemRegistry itemRegistry = new ItemRegistry(itemDefinitions);
+            QuestDefinition[] questDefinitions = new QuestDefinition[quests.size()];
+            for (QuestDraft quest : quests) {
+                questDefinitions[quest.id] = new QuestDefinition(quest, itemRegistry);
+            }
+            return new WorldTemplate(itemDefinitions, roomDefinitions,
+                    characters.toArray(new CharacterDefinition[0]), questDefinitions,
+                    startingRoom, teleporterRoom, guide, guideQuest, accuseQuest, finalQuest, culprit, itemRegistry, new QuestGraph(questDefinitions),
+                    new RoomGraph(roomDefinitions), roomIds);
+        }
+
+        private static int lookup(HashMap<String, Integer> ids, String name, String kind) {
+            Integer id = ids.get(name);
+            if (id == null) {
+                throw new IllegalArgumentException("Unknown " + kind + ": " + name);
+            }
+            return id;
+        }
+
+        private static void checkUnique(HashMap<String, Integer> ids, String name, String kind) {
+            if (ids.containsKey(name)) {
+                throw new IllegalArgumentException("Duplicate " + kind + ": " + name);
+            }
+        }
+
+        private static void checkId(int id, int count, String kind) {
+            if (id < 0 || id >= count) {
+                throw new IllegalArgumentException("Unknown " + kind + " id: " + id);
+            }
+        }
+    }
+
+    /**
+     * A room still being built.
+     */
+    private static class RoomDraft {
+        private int id;
+        private String name;
+        private String description;
+        private ArrayList<String> exitDirections = new ArrayList<>();
+        private ArrayList<Integer> exitRooms = new ArrayList<>();
+        private ArrayList<Integer> items = new ArrayList<>();
+        private ArrayList<Integer> itemAmounts = new ArrayList<>();
+
+        private RoomDraft(int id, String name, String description) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+        }
+    }
+
+    /**
+     * A quest still being built.
+     */
+    private static class QuestDraft {
+        private int id;
+        private String key;
+        private int questGiver;
+        private String name;
+        private String description;
+        private String startingInteraction;
+        private String startedInteraction;
+        private String completionMsg;
+        private String unlocksQuests;
+        private String nextQuests;
+        private int unlockCounter;
+        private int tasks = -1;
+        private ArrayList<Integer> requestedItems = new ArrayList<>();
+        private ArrayList<Integer> requestedAmounts = new ArrayList<>();
+        private int requestedRoom = -1;
+        private String itemReward = "";
+        private boolean initiatedAtStart;
+    }
+
+    private static int[] toArray(ArrayList<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}